@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.CONCURRENCY_LIMIT;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.neutron.example.features.BulkNetworkCreator;
+import org.jclouds.openstack.keystone.v2_0.config.CredentialTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.JsonParser;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Measures the end-to-end time of creating 5000 networks through {@link BulkNetworkCreator}, by chunk size and
+ * number of chunks in flight, against a local mock server that takes 20ms per request plus 0.1ms per network.
+ * A chunk size of 5000 is the single {@code createBulk} request the creator replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkCreateBenchmark {
+
+   private static final int NETWORKS = 5000;
+   private static final long REQUEST_MILLIS = 20;
+   private static final int NETWORKS_PER_MILLI = 10;
+
+   @Param({ "50", "200", "1000", "5000" })
+   private int chunkSize;
+
+   @Param({ "1", "4", "16" })
+   private int maxInFlight;
+
+   private MockWebServer server;
+   private NeutronApi neutronApi;
+   private ListeningExecutorService executor;
+   private BulkNetworkCreator creator;
+   private ImmutableList<Network.CreateNetwork> networks;
+
+   @Setup
+   public void setup() throws IOException {
+      server = new MockWebServer();
+      server.start();
+      String url = server.getUrl("/").toString();
+      final String access = NeutronFixtures.resource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            MockResponse response = new MockResponse().setHeader("Content-Type", "application/json");
+            if (request.getPath().endsWith("/tokens")) {
+               return response.setBody(access);
+            }
+            int count = new JsonParser().parse(request.getBody().readUtf8()).getAsJsonObject()
+                  .getAsJsonArray("networks").size();
+            Thread.sleep(REQUEST_MILLIS + count / NETWORKS_PER_MILLI);
+            try {
+               return response.setResponseCode(201)
+                     .setBody(NeutronFixtures.networks("/network_get_response.json", count));
+            } catch (IOException e) {
+               return response.setResponseCode(500);
+            }
+         }
+      });
+
+      Properties overrides = new Properties();
+      overrides.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      // only maxInFlight bounds the chunks in flight
+      overrides.setProperty(CONCURRENCY_LIMIT, "0");
+      neutronApi = ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint(url)
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildApi(NeutronApi.class);
+      executor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+      creator = new BulkNetworkCreator(neutronApi.getNetworkApi("RegionOne"), executor, chunkSize, maxInFlight);
+
+      ImmutableList.Builder<Network.CreateNetwork> builder = ImmutableList.builder();
+      for (int i = 0; i < NETWORKS; i++) {
+         builder.add(Network.createBuilder("jclouds-wibble-" + i).networkType(NetworkType.LOCAL).build());
+      }
+      networks = builder.build();
+   }
+
+   @TearDown
+   public void tearDown() throws IOException {
+      executor.shutdownNow();
+      neutronApi.close();
+      server.shutdown();
+   }
+
+   @Benchmark
+   public BulkNetworkCreator.Result create() {
+      return creator.create(networks);
+   }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.MAX_IDLE_CONNECTIONS;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.openstack.keystone.v2_0.config.CredentialTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Samples the latency of back-to-back {@link NetworkApi#get(String)} calls against a local mock server, with the
+ * connection pool disabled ({@code maxIdleConnections=0}) and enabled. Read the p99 of the sampled distribution;
+ * the mock server is reached over plain HTTP on loopback, so the savings on a TLS endpoint are larger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionReuseBenchmark {
+
+   @Param({ "0", "20" })
+   private int maxIdleConnections;
+
+   private MockWebServer server;
+   private NeutronApi neutronApi;
+   private NetworkApi networkApi;
+
+   @Setup
+   public void setup() throws IOException {
+      server = new MockWebServer();
+      server.start();
+      String url = server.getUrl("/").toString();
+      final String access = NeutronFixtures.resource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      final String network = NeutronFixtures.resource("/network_get_response.json");
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse()
+                  .setHeader("Content-Type", "application/json")
+                  .setBody(request.getPath().endsWith("/tokens") ? access : network);
+         }
+      });
+
+      Properties overrides = new Properties();
+      overrides.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      overrides.setProperty(MAX_IDLE_CONNECTIONS, Integer.toString(maxIdleConnections));
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      neutronApi = ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint(url)
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildApi(NeutronApi.class);
+      networkApi = neutronApi.getNetworkApi("RegionOne");
+   }
+
+   @TearDown
+   public void tearDown() throws IOException {
+      neutronApi.close();
+      server.shutdown();
+   }
+
+   @Benchmark
+   public Network get() {
+      return networkApi.get("12345");
+   }
+}
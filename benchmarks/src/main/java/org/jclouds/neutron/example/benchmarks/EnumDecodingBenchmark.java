@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares decoding the status and type of 100k networks with the precomputed {@code fromValue} lookups against the
+ * linear scan over {@code values()} they replaced. {@link NetworkListBenchmark} measures the effect on whole
+ * listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumDecodingBenchmark {
+
+   private static final int NETWORKS = 100000;
+   // As returned by Neutron
+   private static final String[] STATUSES = { "ACTIVE", "DOWN", "BUILD", "ERROR" };
+   private static final String[] TYPES = { "local", "flat", "vlan", "vxlan", "gre" };
+
+   private String[] statuses;
+   private String[] types;
+
+   @Setup
+   public void setup() {
+      Random random = new Random(42);
+      statuses = new String[NETWORKS];
+      types = new String[NETWORKS];
+      for (int i = 0; i < NETWORKS; i++) {
+         statuses[i] = STATUSES[random.nextInt(STATUSES.length)];
+         types[i] = TYPES[random.nextInt(TYPES.length)];
+      }
+   }
+
+   @Benchmark
+   public void fromValue(Blackhole blackhole) {
+      for (int i = 0; i < NETWORKS; i++) {
+         blackhole.consume(NetworkStatus.fromValue(statuses[i]));
+         blackhole.consume(NetworkType.fromValue(types[i]));
+      }
+   }
+
+   @Benchmark
+   public void linearScan(Blackhole blackhole) {
+      for (int i = 0; i < NETWORKS; i++) {
+         blackhole.consume(scanStatus(statuses[i]));
+         blackhole.consume(scanType(types[i]));
+      }
+   }
+
+   private static NetworkStatus scanStatus(String name) {
+      for (NetworkStatus value : NetworkStatus.values()) {
+         if (name.equalsIgnoreCase(value.name())) {
+            return value;
+         }
+      }
+      return NetworkStatus.UNRECOGNIZED;
+   }
+
+   private static NetworkType scanType(String name) {
+      for (NetworkType value : NetworkType.values()) {
+         if (name.equalsIgnoreCase(value.toString())) {
+            return value;
+         }
+      }
+      return NetworkType.UNRECOGNIZED;
+   }
+}
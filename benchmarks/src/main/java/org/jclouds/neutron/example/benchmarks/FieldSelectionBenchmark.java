@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.http.HttpResponse;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.functions.ParseNetworkList;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Function;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Measures parsing network listings with all attributes against listings restricted to {@code id} and
+ * {@code status} by {@link org.jclouds.neutron.example.options.ListNetworksOptions#fields(String...)}. The size of
+ * the parsed payload is reported as the {@code payloadBytes} counter of each benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FieldSelectionBenchmark {
+
+   @Param({ "1000", "10000", "100000" })
+   private int size;
+
+   private byte[] allFields;
+   private byte[] selectedFields;
+   private Function<HttpResponse, FluentIterable<Network>> parseNetworks;
+
+   @Setup
+   public void setup() throws IOException {
+      allFields = NeutronFixtures.networks("/network_get_response.json", size).getBytes(UTF_8);
+      selectedFields = NeutronFixtures.networks("/network_get_response.json", size, ImmutableSet.of("id", "status"))
+            .getBytes(UTF_8);
+      parseNetworks = NeutronFixtures.injector().getInstance(ParseNetworkList.class);
+   }
+
+   @Benchmark
+   public FluentIterable<Network> parseAllFields(PayloadCounters counters) {
+      counters.payloadBytes = allFields.length;
+      return parseNetworks.apply(NeutronFixtures.response(allFields));
+   }
+
+   @Benchmark
+   public FluentIterable<Network> parseSelectedFields(PayloadCounters counters) {
+      counters.payloadBytes = selectedFields.length;
+      return parseNetworks.apply(NeutronFixtures.response(selectedFields));
+   }
+
+   /**
+    * The size of the payload a benchmark parses.
+    */
+   @State(Scope.Thread)
+   @AuxCounters(AuxCounters.Type.EVENTS)
+   public static class PayloadCounters {
+      public long payloadBytes;
+   }
+}
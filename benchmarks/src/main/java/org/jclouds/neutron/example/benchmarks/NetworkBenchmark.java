@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.functions.ParseFirstJsonValueNamed;
+import org.jclouds.json.internal.GsonWrapper;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.rest.binders.BindToJsonPayloadWrappedWith;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Function;
+import com.google.inject.Injector;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures the JSON handling of single network requests and responses: {@code @SelectJson("network")}
+ * deserialization, including the enum and {@code @Named} field mapping, and {@code @WrapWith("network")}
+ * serialization of create and update requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+
+   private byte[] network;
+   private Function<HttpResponse, Network> selectNetwork;
+   private BindToJsonPayloadWrappedWith wrapWithNetwork;
+   private Network.CreateNetwork createNetwork;
+   private Network.UpdateNetwork updateNetwork;
+
+   @Setup
+   public void setup() throws IOException {
+      Injector injector = NeutronFixtures.injector();
+      network = NeutronFixtures.resource("/network_get_response.json").getBytes(UTF_8);
+      selectNetwork = new ParseFirstJsonValueNamed<Network>(injector.getInstance(GsonWrapper.class),
+            TypeLiteral.get(Network.class), "network");
+      wrapWithNetwork = injector.getInstance(BindToJsonPayloadWrappedWith.Factory.class).create("network");
+      createNetwork = Network.createBuilder("jclouds-wibble").networkType(NetworkType.LOCAL).build();
+      updateNetwork = Network.updateBuilder().name("jclouds-wibble-updated").networkType(NetworkType.LOCAL).build();
+   }
+
+   @Benchmark
+   public Network deserializeNetwork() {
+      return selectNetwork.apply(NeutronFixtures.response(network));
+   }
+
+   @Benchmark
+   public HttpRequest serializeCreateNetwork() {
+      return wrapWithNetwork.bindToRequest(request(), createNetwork);
+   }
+
+   @Benchmark
+   public HttpRequest serializeUpdateNetwork() {
+      return wrapWithNetwork.bindToRequest(request(), updateNetwork);
+   }
+
+   private static HttpRequest request() {
+      return HttpRequest.builder().method("POST").endpoint("http://localhost:5000/v2.0/networks").build();
+   }
+}
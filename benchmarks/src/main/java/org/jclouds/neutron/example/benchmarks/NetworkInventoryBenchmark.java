@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkInventory;
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.functions.ParseNetworkList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compares finding the DOWN networks of a tenant with {@link NetworkInventory#find} against iterating the equivalent
+ * {@link Network} objects. The networks belong to ten tenants and cycle through three statuses, so about one in thirty
+ * matches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NetworkInventoryBenchmark {
+
+   private static final String TENANT = "tenant-1";
+   private static final String[] STATUSES = { "ACTIVE", "DOWN", "BUILD" };
+
+   @Param({ "10000", "100000" })
+   private int size;
+
+   private ImmutableList<Network> networks;
+   private NetworkInventory inventory;
+
+   @Setup
+   public void setup() {
+      StringBuilder json = new StringBuilder("{\"networks\":[");
+      for (int i = 0; i < size; i++) {
+         if (i > 0) {
+            json.append(',');
+         }
+         json.append(String.format("{\"id\":\"network-%d\",\"name\":\"net%d\",\"status\":\"%s\",\"tenant_id\":"
+               + "\"tenant-%d\",\"provider:network_type\":\"vlan\",\"admin_state_up\":true,\"subnets\":[]}", i, i,
+               STATUSES[i % STATUSES.length], i % 10));
+      }
+      json.append("]}");
+      networks = NeutronFixtures.injector().getInstance(ParseNetworkList.class)
+            .apply(NeutronFixtures.response(json.toString().getBytes(UTF_8))).toList();
+      inventory = NetworkInventory.copyOf(networks);
+   }
+
+   @Benchmark
+   public List<Network> scanNetworks() {
+      ImmutableList.Builder<Network> found = ImmutableList.builder();
+      for (Network network : networks) {
+         if (TENANT.equals(network.getTenantId()) && network.getStatus() == NetworkStatus.DOWN) {
+            found.add(network);
+         }
+      }
+      return found.build();
+   }
+
+   @Benchmark
+   public List<Network> findInInventory() {
+      return inventory.find(TENANT, NetworkStatus.DOWN, null);
+   }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.functions.ParseFirstJsonValueNamed;
+import org.jclouds.json.internal.GsonWrapper;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.neutron.example.functions.ParseNetworkList;
+import org.jclouds.rest.binders.BindToJsonPayloadWrappedWith;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Function;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Injector;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures the JSON handling of network listings and bulk requests of increasing size: the former
+ * {@code @SelectJson("networks")} response path against the streaming {@link ParseNetworkList}, and
+ * {@code @WrapWith("networks")} serialization of bulk creates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NetworkListBenchmark {
+
+   @Param({ "1000", "10000", "100000" })
+   private int size;
+
+   private byte[] networks;
+   private Function<HttpResponse, FluentIterable<Network>> selectNetworks;
+   private Function<HttpResponse, FluentIterable<Network>> streamNetworks;
+   private BindToJsonPayloadWrappedWith wrapWithNetworks;
+   private ImmutableList<Network.CreateNetwork> createNetworks;
+
+   @Setup
+   public void setup() throws IOException {
+      Injector injector = NeutronFixtures.injector();
+      networks = NeutronFixtures.networks("/network_get_response.json", size).getBytes(UTF_8);
+      selectNetworks = new ParseFirstJsonValueNamed<FluentIterable<Network>>(injector.getInstance(GsonWrapper.class),
+            new TypeLiteral<FluentIterable<Network>>() {
+            }, "networks");
+      streamNetworks = injector.getInstance(ParseNetworkList.class);
+      wrapWithNetworks = injector.getInstance(BindToJsonPayloadWrappedWith.Factory.class).create("networks");
+
+      ImmutableList.Builder<Network.CreateNetwork> builder = ImmutableList.builder();
+      for (int i = 0; i < size; i++) {
+         builder.add(Network.createBuilder("jclouds-wibble-" + i).networkType(NetworkType.LOCAL).build());
+      }
+      createNetworks = builder.build();
+   }
+
+   @Benchmark
+   public FluentIterable<Network> deserializeNetworksSelectJson() {
+      return selectNetworks.apply(NeutronFixtures.response(networks));
+   }
+
+   @Benchmark
+   public FluentIterable<Network> deserializeNetworksStreaming() {
+      return streamNetworks.apply(NeutronFixtures.response(networks));
+   }
+
+   @Benchmark
+   public HttpRequest serializeCreateNetworks() {
+      return wrapWithNetworks.bindToRequest(
+            HttpRequest.builder().method("POST").endpoint("http://localhost:5000/v2.0/networks").build(),
+            createNetworks);
+   }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.openstack.keystone.v2_0.config.CredentialTypes;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Walks every network of a tenant through the paged {@link NetworkApi#list()} against a local mock server serving
+ * pages of 1000 networks, streaming them and collecting them into a list. Besides the time, the peak usage of the old
+ * generation during each walk is reported as the {@code peakOldGenMegabytes} counter: it stays flat as the number of
+ * networks grows when streaming, as only one page is held at a time, and grows with it when collecting.
+ * <p/>
+ * The young generation is kept small so that what a walk retains is promoted and shows in the old generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx1g", "-Xmn32m", "-XX:+UseSerialGC" })
+public class NetworkListMemoryBenchmark {
+
+   private static final String FIXTURE = "/network_get_response.json";
+   private static final int PAGE_SIZE = 1000;
+
+   @Param({ "10000", "40000", "100000" })
+   private int networks;
+
+   private MockWebServer server;
+   private NeutronApi neutronApi;
+   private NetworkApi networkApi;
+
+   @Setup(Level.Trial)
+   public void setup() throws IOException {
+      server = new MockWebServer();
+      server.start();
+      String url = server.getUrl("/").toString();
+      final String access = NeutronFixtures.resource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) {
+            MockResponse response = new MockResponse().setHeader("Content-Type", "application/json");
+            if (request.getPath().endsWith("/tokens")) {
+               return response.setBody(access);
+            }
+            try {
+               return response.setBody(page(request.getPath()));
+            } catch (IOException e) {
+               return response.setResponseCode(500);
+            }
+         }
+      });
+
+      Properties overrides = new Properties();
+      overrides.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      neutronApi = ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint(url)
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildApi(NeutronApi.class);
+      networkApi = neutronApi.getNetworkApi("RegionOne");
+   }
+
+   /**
+    * @return the page following the network numbered by the last 8 digits of the marker, or the first page
+    */
+   private String page(String path) throws IOException {
+      int marker = path.indexOf("marker=");
+      int offset = marker < 0 ? 0 : Integer.parseInt(path.substring(path.length() - 8)) + 1;
+      int count = Math.min(PAGE_SIZE, networks - offset);
+      String next = offset + count < networks ? NeutronFixtures.networkId(FIXTURE, offset + count - 1) : null;
+      return NeutronFixtures.networksPage(FIXTURE, offset, count, next);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() throws IOException {
+      neutronApi.close();
+      server.shutdown();
+   }
+
+   @Benchmark
+   public int streamNetworks(HeapCounters heap) {
+      int count = 0;
+      for (Network network : networkApi.list().concat()) {
+         count += network.getId() != null ? 1 : 0;
+      }
+      heap.record();
+      return count;
+   }
+
+   @Benchmark
+   public List<Network> collectNetworks(HeapCounters heap) {
+      List<Network> all = networkApi.list().concat().toList();
+      heap.record();
+      return all;
+   }
+
+   /**
+    * The peak usage of the old generation during an iteration.
+    */
+   @State(Scope.Thread)
+   @AuxCounters(AuxCounters.Type.EVENTS)
+   public static class HeapCounters {
+      public long peakOldGenMegabytes;
+
+      @Setup(Level.Iteration)
+      public void reset() {
+         System.gc();
+         for (MemoryPoolMXBean pool : oldGen()) {
+            pool.resetPeakUsage();
+         }
+         peakOldGenMegabytes = 0;
+      }
+
+      void record() {
+         long peak = 0;
+         for (MemoryPoolMXBean pool : oldGen()) {
+            peak += pool.getPeakUsage().getUsed();
+         }
+         peakOldGenMegabytes = peak >> 20;
+      }
+
+      private static Iterable<MemoryPoolMXBean> oldGen() {
+         List<MemoryPoolMXBean> oldGen = Lists.newArrayList();
+         for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP
+                  && (pool.getName().contains("Old") || pool.getName().contains("Tenured"))) {
+               oldGen.add(pool);
+            }
+         }
+         return oldGen;
+      }
+   }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.util.Strings2;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.inject.Injector;
+
+/**
+ * Builds the injector and payloads shared by the benchmarks, scaling up the JSON fixtures of the example's tests.
+ */
+final class NeutronFixtures {
+
+   private NeutronFixtures() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+
+   /**
+    * @return the injector of a Neutron context; nothing is requested from the endpoint until an api is called
+    */
+   static Injector injector() {
+      Properties overrides = new Properties();
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      return ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint("http://localhost:5000/v2.0/")
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildInjector();
+   }
+
+   static String resource(String name) throws IOException {
+      return Strings2.toStringAndClose(NeutronFixtures.class.getResourceAsStream(name));
+   }
+
+   /**
+    * @return a {@code networks} response holding count copies of the network of the fixture, each with its own id
+    */
+   static String networks(String fixture, int count) throws IOException {
+      return networks(fixture, count, ImmutableSet.<String> of());
+   }
+
+   /**
+    * @param fields the attributes to keep, as selected by a {@code fields} query; all of them if empty
+    * @return a {@code networks} response holding count copies of the selected attributes of the network of the
+    *         fixture, each with its own id
+    */
+   static String networks(String fixture, int count, Set<String> fields) throws IOException {
+      return networks(fixture, 0, count, fields, null);
+   }
+
+   /**
+    * @param nextMarker the marker of the {@code next} link of the page, or null for the last page
+    * @return a page of a {@code networks} listing holding count copies of the network of the fixture, each with its
+    *         own id, numbered from offset as by {@link #networkId(String, int)}
+    */
+   static String networksPage(String fixture, int offset, int count, @Nullable String nextMarker) throws IOException {
+      return networks(fixture, offset, count, ImmutableSet.<String> of(), nextMarker);
+   }
+
+   /**
+    * @return the id of the network numbered index in the listings built from the fixture
+    */
+   static String networkId(String fixture, int index) throws IOException {
+      return numbered(fixtureNetwork(fixture).get("id").getAsString(), index);
+   }
+
+   private static String networks(String fixture, int offset, int count, Set<String> fields,
+         @Nullable String nextMarker) throws IOException {
+      JsonObject network = fixtureNetwork(fixture);
+      if (!fields.isEmpty()) {
+         JsonObject selected = new JsonObject();
+         for (Map.Entry<String, JsonElement> attribute : network.entrySet()) {
+            if (fields.contains(attribute.getKey())) {
+               selected.add(attribute.getKey(), attribute.getValue());
+            }
+         }
+         network = selected;
+      }
+      String id = network.get("id").getAsString();
+      String template = network.toString();
+      StringBuilder networks = new StringBuilder(template.length() * count + 16).append("{\"networks\":[");
+      for (int i = 0; i < count; i++) {
+         if (i > 0) {
+            networks.append(',');
+         }
+         networks.append(template.replace(id, numbered(id, offset + i)));
+      }
+      networks.append(']');
+      if (nextMarker != null) {
+         networks.append(",\"networks_links\":[{\"rel\":\"next\",\"href\":")
+               .append("\"http://localhost:9696/v2.0/networks?marker=").append(nextMarker).append("\"}]");
+      }
+      return networks.append('}').toString();
+   }
+
+   private static JsonObject fixtureNetwork(String fixture) throws IOException {
+      return new JsonParser().parse(resource(fixture)).getAsJsonObject().getAsJsonObject("network");
+   }
+
+   private static String numbered(String id, int index) {
+      return String.format("%s-%08d", id.substring(0, 27), index);
+   }
+
+   static HttpResponse response(byte[] payload) {
+      return HttpResponse.builder().statusCode(200).payload(payload).build();
+   }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
+import static org.jclouds.reflect.Reflection2.method;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.neutron.example.features.PrecompiledNetworkApi;
+import org.jclouds.openstack.keystone.v2_0.config.CredentialTypes;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.config.SetCaller;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+import org.jclouds.rest.internal.RestAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.Invokable;
+import com.google.inject.Injector;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Compares building the request of {@link NetworkApi#get(String)} through the annotation processing of the NetworkApi
+ * proxy with building it from the request template of a {@link PrecompiledNetworkApi}. Neither request is sent; the
+ * mock server only answers the authentication that resolves the endpoint of the region, once, during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestConstructionBenchmark {
+
+   private static final Invokable<NetworkApi, Object> GET = method(NetworkApi.class, "get", String.class);
+   private static final Invokable<NeutronApi, Object> GET_NETWORK_API = method(NeutronApi.class, "getNetworkApi",
+         String.class);
+
+   private MockWebServer server;
+   private NeutronApi neutronApi;
+   private RestAnnotationProcessor proxy;
+   private PrecompiledNetworkApi precompiled;
+   private Invocation get;
+
+   @Setup
+   public void setup() throws IOException {
+      server = new MockWebServer();
+      server.start();
+      String url = server.getUrl("/").toString();
+      final String access = NeutronFixtures.resource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(access);
+         }
+      });
+
+      Properties overrides = new Properties();
+      overrides.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      Injector injector = ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint(url)
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildInjector();
+      neutronApi = injector.getInstance(NeutronApi.class);
+      // the processor of the NetworkApi of the region, as the NeutronApi proxy creates it for getNetworkApi
+      SetCaller setCaller = injector.getInstance(SetCaller.class);
+      setCaller.enter(Invocation.create(GET_NETWORK_API, ImmutableList.<Object> of("RegionOne")));
+      try {
+         proxy = injector.getInstance(RestAnnotationProcessor.class);
+      } finally {
+         setCaller.exit();
+      }
+      precompiled = injector.getInstance(PrecompiledNetworkApi.Factory.class).create("RegionOne");
+      get = Invocation.create(GET, ImmutableList.<Object> of("12345"));
+      // authenticates, so that the endpoints of the regions are known before measuring
+      precompiled.request("12345");
+   }
+
+   @TearDown
+   public void tearDown() throws IOException {
+      neutronApi.close();
+      server.shutdown();
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest proxy() {
+      return proxy.apply(get);
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest precompiled() {
+      return precompiled.request("12345");
+   }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.SHARED_TOKEN_CACHE;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.openstack.keystone.v2_0.config.CredentialTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Measures the time from building a Neutron context to the response of its first {@code NetworkApi#get(String)},
+ * against a local mock Keystone and Neutron, in the default startup, which warms the extension cache in the
+ * background as the context is created, and in the fast one, which makes no request before the first call. The first
+ * iteration of each fork is a cold start, as a short-lived process sees it; the later ones run with the classes
+ * loaded.
+ *
+ * @see org.jclouds.neutron.example.config.NeutronProperties#WARM_EXTENSIONS
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 20)
+@Fork(5)
+public class StartupBenchmark {
+
+   @Param({ "default", "fast" })
+   private String startup;
+
+   private MockWebServer server;
+   private Properties overrides;
+   private String url;
+
+   @Setup(Level.Trial)
+   public void setup() throws IOException {
+      server = new MockWebServer();
+      server.start();
+      url = server.getUrl("/").toString();
+      final String access = NeutronFixtures.resource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      final String extensions = NeutronFixtures.resource("/extension_list_response.json");
+      final String network = NeutronFixtures.resource("/network_get_response.json");
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) {
+            String body = network;
+            if (request.getPath().endsWith("/tokens")) {
+               body = access;
+            } else if (request.getPath().endsWith("/extensions")) {
+               body = extensions;
+            }
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+         }
+      });
+
+      overrides = new Properties();
+      overrides.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      overrides.setProperty(WARM_EXTENSIONS, Boolean.toString(startup.equals("default")));
+      // every context authenticates, as the context of a short-lived process does
+      overrides.setProperty(SHARED_TOKEN_CACHE, "false");
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() throws IOException {
+      server.shutdown();
+   }
+
+   @Benchmark
+   public Network buildAndGet() throws IOException {
+      NeutronApi neutronApi = ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint(url)
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildApi(NeutronApi.class);
+      try {
+         return neutronApi.getNetworkApi("RegionOne").get("12345");
+      } finally {
+         neutronApi.close();
+      }
+   }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.benchmarks;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.CONCURRENCY_LIMIT;
+import static org.jclouds.neutron.example.config.NeutronProperties.TASK_EXECUTOR;
+import static org.jclouds.neutron.example.config.NeutronProperties.VIRTUAL_THREADS;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.openstack.keystone.v2_0.config.CredentialTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Fans {@code fanOut} {@link NetworkApi#get(String)} calls out on the task executor and waits for all of them,
+ * against a local mock server answering each after 20ms, with the bounded jclouds user thread pool and with a
+ * virtual thread per task. Each operation is one fan-out: read the throughput and the p99 of the sampled
+ * distribution. The concurrency limit is disabled so that only the threads bound the requests in flight.
+ * <p/>
+ * On a runtime without virtual threads both modes use the user thread pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+   private static final long LATENCY_MILLIS = 20;
+
+   @Param({ "false", "true" })
+   private boolean virtualThreads;
+
+   @Param({ "100", "1000" })
+   private int fanOut;
+
+   private MockWebServer server;
+   private NeutronApi neutronApi;
+   private NetworkApi networkApi;
+   private ListeningExecutorService taskExecutor;
+
+   @Setup
+   public void setup() throws IOException {
+      server = new MockWebServer();
+      server.start();
+      String url = server.getUrl("/").toString();
+      final String access = NeutronFixtures.resource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      final String network = NeutronFixtures.resource("/network_get_response.json");
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (request.getPath().endsWith("/tokens")) {
+               return new MockResponse().setHeader("Content-Type", "application/json").setBody(access);
+            }
+            // connections are served on their own threads, so requests wait concurrently
+            Thread.sleep(LATENCY_MILLIS);
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(network);
+         }
+      });
+
+      Properties overrides = new Properties();
+      overrides.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      overrides.setProperty(VIRTUAL_THREADS, Boolean.toString(virtualThreads));
+      overrides.setProperty(CONCURRENCY_LIMIT, "0");
+      Injector injector = ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint(url)
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildInjector();
+      neutronApi = injector.getInstance(NeutronApi.class);
+      networkApi = neutronApi.getNetworkApi("RegionOne");
+      taskExecutor = injector.getInstance(Key.get(ListeningExecutorService.class, Names.named(TASK_EXECUTOR)));
+   }
+
+   @TearDown
+   public void tearDown() throws IOException {
+      neutronApi.close();
+      server.shutdown();
+   }
+
+   @Benchmark
+   public List<Network> fanOutGets() throws InterruptedException, ExecutionException {
+      List<ListenableFuture<Network>> networks = Lists.newArrayListWithCapacity(fanOut);
+      for (int i = 0; i < fanOut; i++) {
+         networks.add(taskExecutor.submit(new Callable<Network>() {
+            @Override
+            public Network call() {
+               return networkApi.get("12345");
+            }
+         }));
+      }
+      return Futures.allAsList(networks).get();
+   }
+}
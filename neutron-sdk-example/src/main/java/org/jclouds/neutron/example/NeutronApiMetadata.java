@@ -16,6 +16,27 @@
  */
 package org.jclouds.neutron.example;
 
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_FAILURE_RATE;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_OPEN_DURATION;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_SLOW_CALL_DURATION;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_WINDOW;
+import static org.jclouds.neutron.example.config.NeutronProperties.CONCURRENCY_LATENCY_THRESHOLD;
+import static org.jclouds.neutron.example.config.NeutronProperties.CONCURRENCY_LIMIT;
+import static org.jclouds.neutron.example.config.NeutronProperties.ERROR_BODY_LIMIT;
+import static org.jclouds.neutron.example.config.NeutronProperties.HTTP2;
+import static org.jclouds.neutron.example.config.NeutronProperties.INTERN_NETWORKS;
+import static org.jclouds.neutron.example.config.NeutronProperties.KEEP_ALIVE;
+import static org.jclouds.neutron.example.config.NeutronProperties.MAX_IDLE_CONNECTIONS;
+import static org.jclouds.neutron.example.config.NeutronProperties.NETWORK_CACHE;
+import static org.jclouds.neutron.example.config.NeutronProperties.RATE_LIMIT;
+import static org.jclouds.neutron.example.config.NeutronProperties.RETRY_BUDGET;
+import static org.jclouds.neutron.example.config.NeutronProperties.RETRY_MAX_DELAY;
+import static org.jclouds.neutron.example.config.NeutronProperties.RETRY_OPERATIONS;
+import static org.jclouds.neutron.example.config.NeutronProperties.SHARED_TOKEN_CACHE;
+import static org.jclouds.neutron.example.config.NeutronProperties.TOKEN_REFRESH_AHEAD;
+import static org.jclouds.neutron.example.config.NeutronProperties.VIRTUAL_THREADS;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
 import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
 import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.SERVICE_TYPE;
 
@@ -25,9 +46,10 @@ import java.util.Properties;
 import org.jclouds.apis.ApiMetadata;
 import org.jclouds.openstack.keystone.v2_0.config.AuthenticationApiModule;
 import org.jclouds.openstack.keystone.v2_0.config.CredentialTypes;
-import org.jclouds.openstack.keystone.v2_0.config.KeystoneAuthenticationModule;
 import org.jclouds.openstack.keystone.v2_0.config.KeystoneAuthenticationModule.RegionModule;
 import org.jclouds.neutron.example.config.NeutronHttpApiModule;
+import org.jclouds.neutron.example.config.NeutronHttpCommandExecutorServiceModule;
+import org.jclouds.neutron.example.config.NeutronKeystoneAuthenticationModule;
 import org.jclouds.openstack.v2_0.ServiceType;
 import org.jclouds.rest.internal.BaseHttpApiMetadata;
 
@@ -51,6 +73,27 @@ public class NeutronApiMetadata extends BaseHttpApiMetadata<NeutronApi> {
       Properties properties = BaseHttpApiMetadata.defaultProperties();
       properties.setProperty(SERVICE_TYPE, ServiceType.NETWORK);
       properties.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      properties.setProperty(VIRTUAL_THREADS, "false");
+      properties.setProperty(NETWORK_CACHE, "maximumSize=10000,expireAfterWrite=60s");
+      properties.setProperty(INTERN_NETWORKS, "false");
+      properties.setProperty(MAX_IDLE_CONNECTIONS, "20");
+      properties.setProperty(KEEP_ALIVE, "300000");
+      properties.setProperty(HTTP2, "true");
+      properties.setProperty(RETRY_MAX_DELAY, "10000");
+      properties.setProperty(RETRY_BUDGET, "10");
+      properties.setProperty(RETRY_OPERATIONS, "");
+      properties.setProperty(RATE_LIMIT, "0");
+      properties.setProperty(CONCURRENCY_LIMIT, "100");
+      properties.setProperty(CONCURRENCY_LATENCY_THRESHOLD, "5000");
+      properties.setProperty(CIRCUIT_BREAKER, "true");
+      properties.setProperty(CIRCUIT_BREAKER_WINDOW, "20");
+      properties.setProperty(CIRCUIT_BREAKER_FAILURE_RATE, "50");
+      properties.setProperty(CIRCUIT_BREAKER_SLOW_CALL_DURATION, "10000");
+      properties.setProperty(CIRCUIT_BREAKER_OPEN_DURATION, "30000");
+      properties.setProperty(WARM_EXTENSIONS, "true");
+      properties.setProperty(SHARED_TOKEN_CACHE, "true");
+      properties.setProperty(TOKEN_REFRESH_AHEAD, "300000");
+      properties.setProperty(ERROR_BODY_LIMIT, "8192");
       return properties;
    }
 
@@ -74,9 +117,10 @@ public class NeutronApiMetadata extends BaseHttpApiMetadata<NeutronApi> {
                .defaultProperties(NeutronApiMetadata.defaultProperties())
                .defaultModules(ImmutableSet.<Class<? extends Module>>builder()
                      .add(AuthenticationApiModule.class)
-                     .add(KeystoneAuthenticationModule.class)
+                     .add(NeutronKeystoneAuthenticationModule.class)
                      .add(RegionModule.class)
-                     .add(NeutronHttpApiModule.class).build());
+                     .add(NeutronHttpApiModule.class)
+                     .add(NeutronHttpCommandExecutorServiceModule.class).build());
       }
 
       @Override
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.jclouds.logging.Logger;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.openstack.v2_0.domain.Extension;
+
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+/**
+ * Loads the extensions of every configured region into the extension cache in the background, so that the first
+ * extension lookups of each region do not wait for the service.
+ * <p/>
+ * Created with the context, which warms the cache unless {@link NeutronProperties#WARM_EXTENSIONS} is false. The
+ * first call of the context does not authenticate a second time if it runs while warming authenticates: both wait for
+ * the same token.
+ */
+@Singleton
+public class ExtensionCacheWarmer {
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final Provider<NeutronApi> neutronApi;
+   private final LoadingCache<String, Set<? extends Extension>> extensionsByRegion;
+   private final ListeningExecutorService userExecutor;
+
+   @Inject
+   ExtensionCacheWarmer(@Named(WARM_EXTENSIONS) boolean warm, Provider<NeutronApi> neutronApi,
+         LoadingCache<String, Set<? extends Extension>> extensionsByRegion,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      this.neutronApi = neutronApi;
+      this.extensionsByRegion = extensionsByRegion;
+      this.userExecutor = userExecutor;
+      if (warm) {
+         // listing the regions authenticates, so it is kept off the thread creating the context
+         userExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  warm();
+               } catch (RuntimeException e) {
+                  logger.warn(e, "Could not list the configured regions");
+               }
+            }
+         });
+      }
+   }
+
+   /**
+    * Lists the configured regions, then loads the extensions of each region in a task of the user executor.
+    *
+    * @return the extensions of each region, in the order of the configured regions; it fails if the extensions of a
+    *         region could not be loaded
+    */
+   public ListenableFuture<List<Set<? extends Extension>>> warm() {
+      ImmutableList.Builder<ListenableFuture<Set<? extends Extension>>> loads = ImmutableList.builder();
+      for (final String region : neutronApi.get().getConfiguredRegions()) {
+         loads.add(userExecutor.submit(new Callable<Set<? extends Extension>>() {
+            @Override
+            public Set<? extends Extension> call() {
+               try {
+                  return extensionsByRegion.getUnchecked(region);
+               } catch (RuntimeException e) {
+                  // the region is loaded again by its first lookup
+                  logger.warn(e, "Could not load the extensions of region %s", region);
+                  throw e;
+               }
+            }
+         }));
+      }
+      return Futures.allAsList(loads.build());
+   }
+}
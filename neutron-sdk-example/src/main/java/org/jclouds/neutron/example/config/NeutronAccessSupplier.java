@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+import static org.jclouds.neutron.example.config.NeutronProperties.TOKEN_REFRESH_AHEAD;
+
+import java.net.URI;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.domain.Credentials;
+import org.jclouds.location.Provider;
+import org.jclouds.openstack.keystone.v2_0.domain.Access;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+/**
+ * Supplies the Keystone token of the context from a {@link SharedAccessCache}, replacing the per-context token cache
+ * of {@code KeystoneAuthenticationModule}.
+ */
+@Singleton
+public class NeutronAccessSupplier implements Supplier<Access> {
+
+   private final SharedAccessCache cache;
+   private final Supplier<URI> endpoint;
+   private final Supplier<Credentials> credentials;
+   private final Function<Credentials, Access> authenticate;
+   private final long refreshAhead;
+   private final ListeningExecutorService userExecutor;
+   // the filters of a request are applied to a copy the retry handlers do not see, so the token a request was sent
+   // with is remembered for the thread that sent it
+   private final ThreadLocal<String> lastSupplied = new ThreadLocal<String>();
+
+   @Inject
+   NeutronAccessSupplier(SharedAccessCache cache, @Provider Supplier<URI> endpoint,
+         @Provider Supplier<Credentials> credentials, Function<Credentials, Access> authenticate,
+         @Named(TOKEN_REFRESH_AHEAD) long refreshAhead,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      this.cache = cache;
+      this.endpoint = endpoint;
+      this.credentials = credentials;
+      this.authenticate = authenticate;
+      this.refreshAhead = refreshAhead;
+      this.userExecutor = userExecutor;
+   }
+
+   @Override
+   public Access get() {
+      Access access = cache.get(endpoint.get(), credentials.get(), authenticate, refreshAhead, userExecutor);
+      lastSupplied.set(access.getToken().getId());
+      return access;
+   }
+
+   /**
+    * Discards the token last supplied to the current thread, if it is still the token of the context, so that the
+    * next request authenticates again. Requests are sent on the thread their token was supplied to, so this is the
+    * token a refused request was made with; requests refused together with the same token discard it once.
+    */
+   public void invalidateLastSupplied() {
+      String tokenId = lastSupplied.get();
+      if (tokenId != null) {
+         cache.invalidate(endpoint.get(), credentials.get(), tokenId);
+      }
+   }
+}
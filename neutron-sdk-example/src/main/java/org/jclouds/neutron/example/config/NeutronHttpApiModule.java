@@ -16,32 +16,59 @@
  */
 package org.jclouds.neutron.example.config;
 
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+import static org.jclouds.neutron.example.config.NeutronProperties.NETWORK_CACHE;
+import static org.jclouds.neutron.example.config.NeutronProperties.TASK_EXECUTOR;
+import static org.jclouds.neutron.example.config.NeutronProperties.VIRTUAL_THREADS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.net.URI;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.jclouds.http.HttpErrorHandler;
+import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.http.IOExceptionRetryHandler;
 import org.jclouds.http.annotation.ClientError;
 import org.jclouds.http.annotation.Redirection;
 import org.jclouds.http.annotation.ServerError;
+import org.jclouds.http.okhttp.OkHttpClientSupplier;
 import org.jclouds.json.config.GsonModule.DateAdapter;
 import org.jclouds.json.config.GsonModule.Iso8601DateAdapter;
+import org.jclouds.lifecycle.Closer;
 import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.config.NeutronTypeAdapters.NetworkStatusAdapter;
+import org.jclouds.neutron.example.config.NeutronTypeAdapters.NetworkTypeAdapter;
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.domain.NetworkType;
 import org.jclouds.neutron.example.handlers.NeutronErrorHandler;
+import org.jclouds.neutron.example.handlers.NeutronRetryHandler;
 import org.jclouds.openstack.v2_0.domain.Extension;
 import org.jclouds.openstack.v2_0.functions.PresentWhenExtensionAnnotationNamespaceEqualsAnyNamespaceInExtensionsSet;
 import org.jclouds.rest.ConfiguresHttpApi;
 import org.jclouds.rest.config.HttpApiModule;
 import org.jclouds.rest.functions.ImplicitOptionalConverter;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Provides;
 
 /**
@@ -55,6 +82,8 @@ public class NeutronHttpApiModule extends HttpApiModule<NeutronApi> {
       bind(DateAdapter.class).to(Iso8601DateAdapter.class);
       bind(ImplicitOptionalConverter.class)
             .to(PresentWhenExtensionAnnotationNamespaceEqualsAnyNamespaceInExtensionsSet.class);
+      bind(OkHttpClientSupplier.class).to(NeutronOkHttpClientSupplier.class);
+      bind(ExtensionCacheWarmer.class).asEagerSingleton();
       super.configure();
    }
 
@@ -65,17 +94,97 @@ public class NeutronHttpApiModule extends HttpApiModule<NeutronApi> {
             .build();
    }
 
+   /**
+    * Registers the Neutron enum adapters with GSON.
+    */
+   @Provides
+   @Singleton
+   public Map<Type, Object> provideCustomAdapterBindings() {
+      return ImmutableMap.<Type, Object>of(
+            NetworkStatus.class, new NetworkStatusAdapter(),
+            NetworkType.class, new NetworkTypeAdapter());
+   }
+
+   /**
+    * Provides the extensions of each region. Entries older than a day are reloaded in the background on their next
+    * lookup, which is served the previous extensions meanwhile, so lookups only wait for the first load of a region.
+    * The cache records its hit, miss and load statistics.
+    *
+    * @see ExtensionCacheWarmer
+    */
    @Provides
    @Singleton
    public LoadingCache<String, Set<? extends Extension>> provideExtensionsByRegion(
-         final Provider<NeutronApi> neutronApi) {
-      return CacheBuilder.newBuilder().expireAfterWrite(23, TimeUnit.HOURS)
-            .build(new CacheLoader<String, Set<? extends Extension>>() {
+         final Provider<NeutronApi> neutronApi, @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      return CacheBuilder.newBuilder().refreshAfterWrite(23, TimeUnit.HOURS).recordStats()
+            .build(CacheLoader.asyncReloading(new CacheLoader<String, Set<? extends Extension>>() {
                @Override
                public Set<? extends Extension> load(String key) throws Exception {
                   return neutronApi.get().getExtensionApi(key).list();
                }
-            });
+            }, userExecutor));
+   }
+
+   /**
+    * Provides the size and expiry settings of the {@code CachingNetworkApi} network caches.
+    */
+   @Provides
+   @Singleton
+   @Named(NETWORK_CACHE)
+   public CacheBuilderSpec provideNetworkCacheSpec(@Named(NETWORK_CACHE) String spec) {
+      return CacheBuilderSpec.parse(spec);
+   }
+
+   /**
+    * Provides the executor Neutron helpers fan requests out on. Synchronous {@code NetworkApi} calls run on the
+    * calling thread, so this is where the concurrency of bulk and asynchronous operations is decided.
+    */
+   @Provides
+   @Singleton
+   @Named(TASK_EXECUTOR)
+   public ListeningExecutorService provideTaskExecutor(@Named(VIRTUAL_THREADS) boolean virtualThreads,
+         @Named(PROPERTY_USER_THREADS) ListeningExecutorService userExecutor, Closer closer) {
+      return taskExecutor(virtualThreads, Executors.class, userExecutor, closer);
+   }
+
+   /**
+    * @param executors the class whose static {@code newVirtualThreadPerTaskExecutor()} creates the virtual thread
+    *        executor, {@link Executors} outside of tests
+    */
+   @VisibleForTesting
+   static ListeningExecutorService taskExecutor(boolean virtualThreads, Class<?> executors,
+         ListeningExecutorService userExecutor, Closer closer) {
+      if (virtualThreads) {
+         ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor(executors);
+         if (virtualThreadExecutor != null) {
+            return shutdownOnClose(MoreExecutors.listeningDecorator(virtualThreadExecutor), closer);
+         }
+      }
+      return userExecutor;
+   }
+
+   /**
+    * Looked up reflectively, as virtual threads are not available on every runtime jclouds supports.
+    *
+    * @return a virtual-thread-per-task executor, or null if the runtime does not support virtual threads
+    */
+   private static ExecutorService newVirtualThreadPerTaskExecutor(Class<?> executors) {
+      try {
+         Method factory = executors.getMethod("newVirtualThreadPerTaskExecutor");
+         return ExecutorService.class.cast(factory.invoke(null));
+      } catch (ReflectiveOperationException e) {
+         return null;
+      }
+   }
+
+   private static <T extends ExecutorService> T shutdownOnClose(final T executor, Closer closer) {
+      closer.addToClose(new Closeable() {
+         @Override
+         public void close() throws IOException {
+            executor.shutdownNow();
+         }
+      });
+      return executor;
    }
 
    @Override
@@ -84,4 +193,11 @@ public class NeutronHttpApiModule extends HttpApiModule<NeutronApi> {
       bind(HttpErrorHandler.class).annotatedWith(ClientError.class).to(NeutronErrorHandler.class);
       bind(HttpErrorHandler.class).annotatedWith(ServerError.class).to(NeutronErrorHandler.class);
    }
+
+   @Override
+   protected void bindRetryHandlers() {
+      bind(HttpRetryHandler.class).annotatedWith(ClientError.class).to(NeutronRetryHandler.class);
+      bind(HttpRetryHandler.class).annotatedWith(ServerError.class).to(NeutronRetryHandler.class);
+      bind(IOExceptionRetryHandler.class).to(NeutronRetryHandler.class);
+   }
 }
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+import org.jclouds.http.okhttp.OkHttpCommandExecutorService;
+import org.jclouds.http.okhttp.config.OkHttpCommandExecutorServiceModule;
+import org.jclouds.neutron.example.http.CurrentRegionHttpCommandExecutorService;
+import org.jclouds.neutron.example.http.MeteredHttpCommandExecutorService;
+import org.jclouds.neutron.example.metrics.NeutronMetrics;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.util.Modules;
+
+/**
+ * Configures the OkHttp driver, decorated to limit, break and measure the requests made to Neutron and Keystone.
+ * Limits and circuit breakers apply to each attempt, through the interceptors of the client supplied by
+ * {@link NeutronOkHttpClientSupplier}.
+ */
+@ConfiguresHttpCommandExecutorService
+public class NeutronHttpCommandExecutorServiceModule extends AbstractModule {
+
+   @Override
+   protected void configure() {
+      install(Modules.override(new OkHttpCommandExecutorServiceModule()).with(new AbstractModule() {
+         @Override
+         protected void configure() {
+         }
+
+         @Provides
+         @Singleton
+         HttpCommandExecutorService provideHttpCommandExecutorService(OkHttpCommandExecutorService okHttp,
+               NeutronMetrics metrics) {
+            // measured around the retries and the throttle, so that the latency is the one seen by the caller
+            return new MeteredHttpCommandExecutorService(new CurrentRegionHttpCommandExecutorService(okHttp),
+                  metrics);
+         }
+      }));
+   }
+}
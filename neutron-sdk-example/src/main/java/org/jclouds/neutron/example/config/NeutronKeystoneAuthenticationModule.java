@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.SHARED_TOKEN_CACHE;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.openstack.keystone.v2_0.config.KeystoneAuthenticationModule;
+import org.jclouds.openstack.keystone.v2_0.domain.Access;
+
+import com.google.common.base.Supplier;
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.util.Modules;
+
+/**
+ * Configures Keystone authentication, with tokens shared by the contexts of the JVM and renewed ahead of their expiry.
+ *
+ * @see SharedAccessCache
+ */
+public class NeutronKeystoneAuthenticationModule extends AbstractModule {
+
+   @Override
+   protected void configure() {
+      install(Modules.override(new KeystoneAuthenticationModule()).with(new AbstractModule() {
+         @Override
+         protected void configure() {
+         }
+
+         @Provides
+         @Singleton
+         Supplier<Access> provideAccessSupplier(NeutronAccessSupplier accessSupplier) {
+            return accessSupplier;
+         }
+      }));
+   }
+
+   @Provides
+   @Singleton
+   SharedAccessCache provideSharedAccessCache(@Named(SHARED_TOKEN_CACHE) boolean shared) {
+      return shared ? SharedAccessCache.shared() : new SharedAccessCache();
+   }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER;
+import static org.jclouds.neutron.example.config.NeutronProperties.HTTP2;
+import static org.jclouds.neutron.example.config.NeutronProperties.KEEP_ALIVE;
+import static org.jclouds.neutron.example.config.NeutronProperties.MAX_IDLE_CONNECTIONS;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.jclouds.http.okhttp.OkHttpClientSupplier;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.neutron.example.http.CircuitBreakingInterceptor;
+import org.jclouds.neutron.example.http.ThrottlingInterceptor;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+
+/**
+ * Supplies the OkHttp client used to call Neutron and Keystone, with a connection pool sized and timed by the
+ * {@link NeutronProperties#MAX_IDLE_CONNECTIONS} and {@link NeutronProperties#KEEP_ALIVE} properties.
+ * <p/>
+ * The pool keeps connections per endpoint address, so the endpoints of different regions never share connections.
+ * Idle connections are evicted when the context is closed. Each attempt of a request goes through the
+ * {@link ThrottlingInterceptor} and then, unless {@link NeutronProperties#CIRCUIT_BREAKER} is false, the
+ * {@link CircuitBreakingInterceptor}.
+ */
+@Singleton
+public class NeutronOkHttpClientSupplier implements OkHttpClientSupplier {
+
+   private final ConnectionPool connectionPool;
+   private final boolean http2;
+   private final ThrottlingInterceptor throttle;
+   private final Provider<CircuitBreakingInterceptor> circuitBreaker;
+   private final boolean circuitBreakerEnabled;
+
+   @Inject
+   NeutronOkHttpClientSupplier(@Named(MAX_IDLE_CONNECTIONS) int maxIdleConnections, @Named(KEEP_ALIVE) long keepAlive,
+         @Named(HTTP2) boolean http2, ThrottlingInterceptor throttle,
+         @Named(CIRCUIT_BREAKER) boolean circuitBreakerEnabled, Provider<CircuitBreakingInterceptor> circuitBreaker,
+         Closer closer) {
+      checkArgument(maxIdleConnections >= 0, "%s must not be negative", MAX_IDLE_CONNECTIONS);
+      checkArgument(keepAlive > 0, "%s must be positive", KEEP_ALIVE);
+      this.connectionPool = new ConnectionPool(maxIdleConnections, keepAlive);
+      this.http2 = http2;
+      this.throttle = checkNotNull(throttle, "throttle");
+      this.circuitBreakerEnabled = circuitBreakerEnabled;
+      this.circuitBreaker = checkNotNull(circuitBreaker, "circuitBreaker");
+      closer.addToClose(new Closeable() {
+         @Override
+         public void close() throws IOException {
+            connectionPool.evictAll();
+         }
+      });
+   }
+
+   @Override
+   public OkHttpClient get() {
+      OkHttpClient client = new OkHttpClient();
+      client.setConnectionPool(connectionPool);
+      // HTTP/2 is negotiated through ALPN on TLS connections; plain connections and older servers use HTTP/1.1
+      client.setProtocols(http2 ? ImmutableList.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+            : ImmutableList.of(Protocol.HTTP_1_1));
+      client.interceptors().add(throttle);
+      if (circuitBreakerEnabled) {
+         // inside of the throttle, so that the time spent waiting for a turn does not make an attempt slow
+         client.interceptors().add(circuitBreaker.get());
+      }
+      return client;
+   }
+}
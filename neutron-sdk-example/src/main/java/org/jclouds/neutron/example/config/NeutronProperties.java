@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+/**
+ * Configuration properties and constants used in Neutron connections.
+ */
+public final class NeutronProperties {
+
+   /**
+    * Type: Boolean
+    * <p/>
+    * When true, the {@link #TASK_EXECUTOR} used to fan out Neutron requests starts a new virtual thread per task
+    * instead of sharing the bounded jclouds user thread pool. Requires a Java runtime with virtual threads; on older
+    * runtimes the user thread pool is used. Defaults to false.
+    */
+   public static final String VIRTUAL_THREADS = "jclouds.neutron.virtual-threads";
+
+   /**
+    * Name of the {@code ListeningExecutorService} binding that helpers such as
+    * {@link org.jclouds.neutron.example.features.AsyncNetworkApi} dispatch their requests on.
+    *
+    * @see #VIRTUAL_THREADS
+    */
+   public static final String TASK_EXECUTOR = "jclouds.neutron.task-executor";
+
+   /**
+    * Type: String
+    * <p/>
+    * A {@link com.google.common.cache.CacheBuilderSpec} for the per-region network caches of
+    * {@link org.jclouds.neutron.example.features.CachingNetworkApi}, bounding their size and the time an entry is
+    * served before it is read again. Defaults to {@code maximumSize=10000,expireAfterWrite=60s}.
+    */
+   public static final String NETWORK_CACHE = "jclouds.neutron.network-cache";
+
+   /**
+    * Type: Boolean
+    * <p/>
+    * When true, networks decoded from list and bulk responses share their tenant ids, subnet ids and identical subnet
+    * sets through a {@link org.jclouds.neutron.example.domain.NetworkInterner}, reducing the heap retained by large
+    * inventories at the cost of slower decoding. Defaults to false.
+    */
+   public static final String INTERN_NETWORKS = "jclouds.neutron.intern-networks";
+
+   /**
+    * Type: Integer
+    * <p/>
+    * The maximum number of idle connections kept open for reuse, across all Neutron and Keystone endpoints. Zero
+    * closes every connection once its response is read. Defaults to 20.
+    */
+   public static final String MAX_IDLE_CONNECTIONS = "jclouds.neutron.max-idle-connections";
+
+   /**
+    * Type: Long
+    * <p/>
+    * The time in milliseconds an idle connection is kept open before it is closed. Defaults to 300000 (5 minutes).
+    */
+   public static final String KEEP_ALIVE = "jclouds.neutron.keep-alive";
+
+   /**
+    * Type: Boolean
+    * <p/>
+    * When true, HTTP/2 is offered to endpoints reached over TLS, multiplexing concurrent requests over a single
+    * connection; endpoints that do not support it are called over HTTP/1.1. Defaults to true.
+    */
+   public static final String HTTP2 = "jclouds.neutron.http2";
+
+   /**
+    * Type: Long
+    * <p/>
+    * The maximum delay in milliseconds between two attempts of a request retried by
+    * {@link org.jclouds.neutron.example.handlers.NeutronRetryHandler}. Requests whose {@code Retry-After} asks for a
+    * longer delay are not retried. The first delay is bounded by
+    * {@link org.jclouds.Constants#PROPERTY_RETRY_DELAY_START} and the number of attempts by
+    * {@link org.jclouds.Constants#PROPERTY_MAX_RETRIES}. Defaults to 10000.
+    */
+   public static final String RETRY_MAX_DELAY = "jclouds.neutron.retry-max-delay";
+
+   /**
+    * Type: Double
+    * <p/>
+    * The number of retries per second, across all requests of the context, beyond which failed requests are no
+    * longer retried. Defaults to 10.
+    */
+   public static final String RETRY_BUDGET = "jclouds.neutron.retry-budget";
+
+   /**
+    * Type: String
+    * <p/>
+    * A comma-separated list of non-idempotent operations to retry as well, by their {@code @Named} value, such as
+    * {@code network:create}. Only retry operations whose duplicates are harmless. Defaults to none.
+    */
+   public static final String RETRY_OPERATIONS = "jclouds.neutron.retry-operations";
+
+   /**
+    * Type: Double
+    * <p/>
+    * The number of requests per second started in each region; further requests wait. Zero does not limit the rate.
+    * Defaults to 0.
+    */
+   public static final String RATE_LIMIT = "jclouds.neutron.rate-limit";
+
+   /**
+    * Type: Integer
+    * <p/>
+    * The maximum number of requests in flight in each region. The effective limit starts at a quarter of it, grows
+    * while requests complete normally and shrinks when the service throttles or slows down; further requests wait.
+    * Zero does not limit concurrency. Defaults to 100.
+    *
+    * @see org.jclouds.neutron.example.http.ThrottlingInterceptor
+    */
+   public static final String CONCURRENCY_LIMIT = "jclouds.neutron.concurrency-limit";
+
+   /**
+    * Type: Long
+    * <p/>
+    * The latency in milliseconds above which a completed request is taken as a sign of an overloaded service,
+    * reducing the concurrency limit of its region. Defaults to 5000.
+    */
+   public static final String CONCURRENCY_LATENCY_THRESHOLD = "jclouds.neutron.concurrency-latency-threshold";
+
+   /**
+    * Type: Boolean
+    * <p/>
+    * When true, requests to a region fail fast with a
+    * {@link org.jclouds.neutron.example.http.CircuitBreakerOpenException} while too many of its recent requests fail
+    * or are slow. Defaults to true.
+    *
+    * @see org.jclouds.neutron.example.http.CircuitBreaker
+    */
+   public static final String CIRCUIT_BREAKER = "jclouds.neutron.circuit-breaker";
+
+   /**
+    * Type: Integer
+    * <p/>
+    * The number of recent requests to a region whose outcome decides whether its circuit breaker opens. Defaults to
+    * 20.
+    */
+   public static final String CIRCUIT_BREAKER_WINDOW = "jclouds.neutron.circuit-breaker.window";
+
+   /**
+    * Type: Integer
+    * <p/>
+    * The percentage of failed requests, or of slow requests, among the recent requests to a region that opens its
+    * circuit breaker. Defaults to 50.
+    */
+   public static final String CIRCUIT_BREAKER_FAILURE_RATE = "jclouds.neutron.circuit-breaker.failure-rate";
+
+   /**
+    * Type: Long
+    * <p/>
+    * The duration in milliseconds above which a request counts as slow for the circuit breaker. Defaults to 10000.
+    */
+   public static final String CIRCUIT_BREAKER_SLOW_CALL_DURATION = "jclouds.neutron.circuit-breaker.slow-call-duration";
+
+   /**
+    * Type: Long
+    * <p/>
+    * The time in milliseconds requests to a region are refused once its circuit breaker opens, before probe requests
+    * are let through. Defaults to 30000.
+    */
+   public static final String CIRCUIT_BREAKER_OPEN_DURATION = "jclouds.neutron.circuit-breaker.open-duration";
+
+   /**
+    * Type: Boolean
+    * <p/>
+    * When true, the extensions of every configured region are loaded in the background as the context is created, so
+    * that the first extension lookups do not wait for the service. Defaults to true.
+    * <p/>
+    * When false, creating the context makes no request: Keystone authentication and the resolution of the regional
+    * endpoints are deferred to the first call, which suits short-lived processes that make few calls. There is no
+    * other startup-optimized mode: jclouds already defers authentication and endpoint resolution, and processes the
+    * annotations of an api method on its first call, so false is the fast startup and true, the default, is the
+    * warm one.
+    *
+    * @see ExtensionCacheWarmer
+    */
+   public static final String WARM_EXTENSIONS = "jclouds.neutron.warm-extensions";
+
+   /**
+    * Type: Boolean
+    * <p/>
+    * When true, contexts that authenticate against the same Keystone endpoint with the same credentials share their
+    * token, rather than each authenticating. Defaults to true.
+    *
+    * @see SharedAccessCache
+    */
+   public static final String SHARED_TOKEN_CACHE = "jclouds.neutron.shared-token-cache";
+
+   /**
+    * Type: Long
+    * <p/>
+    * How long in milliseconds before its expiry a token is renewed in the background; tokens are renewed half way
+    * through their lifetime at the latest. Defaults to 300000.
+    */
+   public static final String TOKEN_REFRESH_AHEAD = "jclouds.neutron.token-refresh-ahead";
+
+   /**
+    * Type: Integer
+    * <p/>
+    * The number of bytes of an error body kept by the exception of a failed request; the rest is not read. Defaults to
+    * 8192.
+    *
+    * @see org.jclouds.neutron.example.handlers.NeutronResponseException
+    */
+   public static final String ERROR_BODY_LIMIT = "jclouds.neutron.error-body-limit";
+
+   private NeutronProperties() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+}
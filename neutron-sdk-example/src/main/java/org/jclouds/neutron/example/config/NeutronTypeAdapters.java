@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import java.io.IOException;
+
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.domain.NetworkType;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * GSON type adapters for the Neutron enums.
+ * <p/>
+ * They decode through the precomputed {@code fromValue} lookups directly, instead of the generic jclouds enum adapter
+ * which tries {@code Enum.valueOf} first and falls back to {@code fromValue} through reflection after an exception,
+ * as happens for every lower case value Neutron returns.
+ */
+public final class NeutronTypeAdapters {
+
+   private NeutronTypeAdapters() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+
+   public static final class NetworkStatusAdapter extends TypeAdapter<NetworkStatus> {
+      @Override
+      public void write(JsonWriter out, NetworkStatus value) throws IOException {
+         if (value == null) {
+            out.nullValue();
+         } else {
+            out.value(value.toString());
+         }
+      }
+
+      @Override
+      public NetworkStatus read(JsonReader in) throws IOException {
+         if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+         }
+         return NetworkStatus.fromValue(in.nextString());
+      }
+   }
+
+   public static final class NetworkTypeAdapter extends TypeAdapter<NetworkType> {
+      @Override
+      public void write(JsonWriter out, NetworkType value) throws IOException {
+         if (value == null) {
+            out.nullValue();
+         } else {
+            out.value(value.toString());
+         }
+      }
+
+      @Override
+      public NetworkType read(JsonReader in) throws IOException {
+         if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+         }
+         return NetworkType.fromValue(in.nextString());
+      }
+   }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.domain.Credentials;
+import org.jclouds.openstack.keystone.v2_0.domain.Access;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Keeps the Keystone tokens of every context of the JVM that authenticates against the same endpoint with the same
+ * credentials, so that they share a token rather than each authenticating.
+ * <p/>
+ * A token is renewed in the background once it is within the refresh-ahead time of its expiry, or half way through its
+ * lifetime if that comes first, and callers are served the current token meanwhile. Callers only wait for the first
+ * token of their credentials, and for a renewal if the token expired before one completed. Tokens that expire before
+ * they are received, as happens when the clocks of the client and Keystone disagree, are kept until a request is
+ * refused with a 401 and {@link #invalidate} discards them.
+ * <p/>
+ * Renewals run on the executor of the context that found the token due, authenticating through that context.
+ *
+ * @see NeutronProperties#SHARED_TOKEN_CACHE
+ */
+@Beta
+public class SharedAccessCache {
+
+   private static final SharedAccessCache SHARED = new SharedAccessCache();
+
+   /**
+    * @return the cache shared by the contexts of the JVM
+    */
+   public static SharedAccessCache shared() {
+      return SHARED;
+   }
+
+   // credentials unused for a day are dropped, so that a long-lived JVM does not keep every token it ever received
+   private final LoadingCache<Key, Entry> entries = CacheBuilder.newBuilder().expireAfterAccess(1, TimeUnit.DAYS)
+         .build(new CacheLoader<Key, Entry>() {
+            @Override
+            public Entry load(Key key) {
+               return new Entry();
+            }
+         });
+
+   SharedAccessCache() {
+   }
+
+   /**
+    * @param endpoint the Keystone endpoint the credentials authenticate against
+    * @param credentials the identity and secret authenticating
+    * @param authenticate requests a new token for the credentials
+    * @param refreshAhead how long before expiry a token is renewed, in milliseconds
+    * @param executor the executor renewals run on
+    * @return the token of the credentials
+    */
+   public Access get(URI endpoint, final Credentials credentials, final Function<Credentials, Access> authenticate,
+         long refreshAhead, Executor executor) {
+      checkNotNull(credentials, "credentials");
+      checkNotNull(authenticate, "authenticate");
+      checkArgument(refreshAhead >= 0, "refreshAhead must not be negative");
+      checkNotNull(executor, "executor");
+      final Entry entry = entries.getUnchecked(new Key(checkNotNull(endpoint, "endpoint"), credentials));
+      ListenableFutureTask<Access> load;
+      boolean loadHere = false;
+      synchronized (entry) {
+         long now = currentTimeMillis();
+         if (entry.access != null && now < entry.expiresAt) {
+            if ((entry.pending == null || entry.pending.task.isDone()) && now >= entry.refreshAt) {
+               entry.pending = entry.new Load(credentials, authenticate, refreshAhead);
+               try {
+                  executor.execute(entry.pending.task);
+               } catch (RejectedExecutionException e) {
+                  // the executor of a closed context; the next caller renews the token
+                  entry.pending = null;
+               }
+            }
+            return entry.access;
+         }
+         // a renewal that has not started may sit on the executor of another context, or have been dropped by it
+         // when that context closed, so it is only waited for once it runs
+         if (entry.pending == null || !entry.pending.started || entry.pending.task.isDone()) {
+            entry.pending = entry.new Load(credentials, authenticate, refreshAhead);
+            loadHere = true;
+         }
+         load = entry.pending.task;
+      }
+      if (loadHere) {
+         load.run();
+      }
+      try {
+         return Uninterruptibles.getUninterruptibly(load);
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      }
+   }
+
+   /**
+    * Discards the token of the credentials if it is the given one, so that the next request authenticates again.
+    * Requests refused together with the same token discard it once.
+    *
+    * @param tokenId the id of the refused token
+    */
+   public void invalidate(URI endpoint, Credentials credentials, String tokenId) {
+      checkNotNull(tokenId, "tokenId");
+      Entry entry = entries.getIfPresent(new Key(checkNotNull(endpoint, "endpoint"),
+            checkNotNull(credentials, "credentials")));
+      if (entry != null) {
+         synchronized (entry) {
+            if (entry.access != null && tokenId.equals(entry.access.getToken().getId())) {
+               entry.access = null;
+            }
+         }
+      }
+   }
+
+   long currentTimeMillis() {
+      return System.currentTimeMillis();
+   }
+
+   private final class Entry {
+      // all guarded by this
+      private Access access;
+      private long refreshAt;
+      private long expiresAt;
+      private Load pending;
+
+      private final class Load implements Callable<Access> {
+         private final Credentials credentials;
+         private final Function<Credentials, Access> authenticate;
+         private final long refreshAhead;
+         private final ListenableFutureTask<Access> task = ListenableFutureTask.create(this);
+         // guarded by Entry.this
+         private boolean started;
+
+         Load(Credentials credentials, Function<Credentials, Access> authenticate, long refreshAhead) {
+            this.credentials = credentials;
+            this.authenticate = authenticate;
+            this.refreshAhead = refreshAhead;
+         }
+
+         @Override
+         public Access call() {
+            synchronized (Entry.this) {
+               if (pending != this) {
+                  // replaced by a caller that did not wait for it to start
+                  return access;
+               }
+               started = true;
+            }
+            try {
+               Access loaded = authenticate.apply(credentials);
+               long now = currentTimeMillis();
+               Date expires = loaded.getToken().getExpires();
+               long lifetime = expires != null ? expires.getTime() - now : 0;
+               synchronized (Entry.this) {
+                  access = loaded;
+                  if (lifetime > 0) {
+                     refreshAt = now + Math.max(lifetime - refreshAhead, lifetime / 2);
+                     expiresAt = now + lifetime;
+                  } else {
+                     refreshAt = Long.MAX_VALUE;
+                     expiresAt = Long.MAX_VALUE;
+                  }
+               }
+               return loaded;
+            } finally {
+               // whatever the outcome, including an Error, so that the next caller renews the token
+               synchronized (Entry.this) {
+                  if (pending == this) {
+                     pending = null;
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   private static final class Key {
+      private final URI endpoint;
+      private final Credentials credentials;
+
+      Key(URI endpoint, Credentials credentials) {
+         this.endpoint = endpoint;
+         this.credentials = credentials;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (this == obj) {
+            return true;
+         }
+         if (!(obj instanceof Key)) {
+            return false;
+         }
+         Key that = Key.class.cast(obj);
+         // the secret is part of the key, so that a token is only shared by callers that could have obtained it
+         return endpoint.equals(that.endpoint) && Objects.equal(credentials.identity, that.credentials.identity)
+               && Objects.equal(credentials.credential, that.credentials.credential);
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hashCode(endpoint, credentials.identity, credentials.credential);
+      }
+   }
+}
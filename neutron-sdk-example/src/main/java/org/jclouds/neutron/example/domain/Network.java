@@ -19,6 +19,7 @@ package org.jclouds.neutron.example.domain;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.beans.ConstructorProperties;
+import java.util.Date;
 
 import javax.inject.Named;
 
@@ -48,10 +49,16 @@ public class Network {
    @Named("provider:network_type")
    private NetworkType networkType;
 
+   @Named("updated_at")
+   private Date updatedAt;
+   @Named("revision_number")
+   private Long revisionNumber;
+
    @ConstructorProperties(
-         { "id", "status", "subnets", "name", "admin_state_up", "shared", "tenant_id", "provider:network_type" })
-   private Network(String id, NetworkStatus status, ImmutableSet<String> subnets, String name, Boolean adminStateUp,
-         Boolean shared, String tenantId, NetworkType networkType) {
+         { "id", "status", "subnets", "name", "admin_state_up", "shared", "tenant_id", "provider:network_type",
+               "updated_at", "revision_number" })
+   Network(String id, NetworkStatus status, ImmutableSet<String> subnets, String name, Boolean adminStateUp,
+         Boolean shared, String tenantId, NetworkType networkType, Date updatedAt, Long revisionNumber) {
       // No checkNotNulls. With Neutron, any of these properties can be left null when used in an update.
       this.id = id;
       this.status = status;
@@ -61,6 +68,8 @@ public class Network {
       this.shared = shared;
       this.tenantId = tenantId;
       this.networkType = networkType;
+      this.updatedAt = updatedAt;
+      this.revisionNumber = revisionNumber;
    }
 
    /**
@@ -82,7 +91,9 @@ public class Network {
             network.adminStateUp,
             network.shared,
             network.tenantId,
-            network.networkType);
+            network.networkType,
+            network.updatedAt,
+            network.revisionNumber);
    }
 
    /**
@@ -153,9 +164,30 @@ public class Network {
       return networkType;
    }
 
+   /**
+    * Only set when the Neutron timestamp extension is enabled.
+    *
+    * @return the time the Network was last updated
+    */
+   @Nullable
+   public Date getUpdatedAt() {
+      return updatedAt;
+   }
+
+   /**
+    * Only set when the Neutron standard attribute revisions extension is enabled.
+    *
+    * @return the revision number of the Network, incremented on every update
+    */
+   @Nullable
+   public Long getRevisionNumber() {
+      return revisionNumber;
+   }
+
    @Override
    public int hashCode() {
-      return Objects.hashCode(id, status, subnets, name, adminStateUp, shared, tenantId, networkType);
+      return Objects.hashCode(id, status, subnets, name, adminStateUp, shared, tenantId, networkType, updatedAt,
+            revisionNumber);
    }
 
    /*
@@ -178,7 +210,9 @@ public class Network {
             && Objects.equal(this.adminStateUp, that.adminStateUp)
             && Objects.equal(this.shared, that.shared)
             && Objects.equal(this.tenantId, that.tenantId)
-            && Objects.equal(this.networkType, that.networkType);
+            && Objects.equal(this.networkType, that.networkType)
+            && Objects.equal(this.updatedAt, that.updatedAt)
+            && Objects.equal(this.revisionNumber, that.revisionNumber);
    }
 
    @Override
@@ -192,6 +226,8 @@ public class Network {
             .add("shared", shared)
             .add("tenantId", tenantId)
             .add("networkType", networkType)
+            .add("updatedAt", updatedAt)
+            .add("revisionNumber", revisionNumber)
             .toString();
    }
 
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.domain;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.inject.Singleton;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Canonicalizes the values large numbers of networks tend to share, so that they are held once rather than once per
+ * {@link Network}: tenant ids, subnet ids and identical subnet sets.
+ * <p/>
+ * Values are held weakly, so they are reclaimed once no network refers to them any more. A subnet set already held is
+ * returned as is; only a set seen for the first time is rebuilt from interned subnet ids.
+ *
+ * @see org.jclouds.neutron.example.config.NeutronProperties#INTERN_NETWORKS
+ */
+@Beta
+@Singleton
+public class NetworkInterner {
+
+   private final Interner<String> strings = Interners.newWeakInterner();
+   // a WeakHashMap rather than an Interner, so that a set can be looked up without being added; the values are weak
+   // too, as they refer to their own keys
+   private final Map<ImmutableSet<String>, WeakReference<ImmutableSet<String>>> subnets =
+         new WeakHashMap<ImmutableSet<String>, WeakReference<ImmutableSet<String>>>();
+
+   /**
+    * @param network the network to canonicalize
+    * @return a network equal to the given one, sharing its tenant id and subnets with the networks interned before
+    */
+   public Network intern(Network network) {
+      return new Network(network.getId(),
+            network.getStatus(),
+            intern(network.getSubnets()),
+            network.getName(),
+            network.isAdminStateUp(),
+            network.isShared(),
+            intern(network.getTenantId()),
+            network.getNetworkType(),
+            network.getUpdatedAt(),
+            network.getRevisionNumber());
+   }
+
+   private String intern(String value) {
+      return value != null ? strings.intern(value) : null;
+   }
+
+   private ImmutableSet<String> intern(ImmutableSet<String> values) {
+      if (values == null || values.isEmpty()) {
+         // the empty ImmutableSet is a singleton already
+         return values;
+      }
+      synchronized (subnets) {
+         WeakReference<ImmutableSet<String>> held = subnets.get(values);
+         ImmutableSet<String> canonical = held != null ? held.get() : null;
+         if (canonical == null) {
+            ImmutableSet.Builder<String> interned = ImmutableSet.builder();
+            for (String value : values) {
+               interned.add(strings.intern(value));
+            }
+            canonical = interned.build();
+            subnets.put(canonical, new WeakReference<ImmutableSet<String>>(canonical));
+         }
+         return canonical;
+      }
+   }
+}
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.domain;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+/**
+ * An immutable, compact snapshot of many networks, stored column by column.
+ * <p/>
+ * Tenant ids and subnet sets are dictionary encoded, statuses and types are stored as one byte per network, and the
+ * boolean attributes as bit sets, so a snapshot takes a fraction of the heap of the equivalent {@link Network}
+ * objects. {@link Network}s are only created when a row is read, and {@link #find(String, NetworkStatus, NetworkType)}
+ * scans the encoded columns without creating any for the rows that do not match. Ids are looked up through an
+ * open-addressed table of row numbers over the id column, rather than a map holding an entry and a boxed row number
+ * per network.
+ */
+@Beta
+public final class NetworkInventory extends AbstractList<Network> {
+
+   private static final NetworkStatus[] STATUSES = NetworkStatus.values();
+   private static final NetworkType[] TYPES = NetworkType.values();
+   private static final byte NULL_CODE = -1;
+   private static final long NULL_LONG = Long.MIN_VALUE;
+
+   private final int size;
+   private final String[] ids;
+   private final String[] names;
+   // row + 1 of the network whose id hashes to the slot or probes past it, 0 for an empty slot
+   private final int[] rowsById;
+   private final String[] tenants;
+   private final ImmutableMap<String, Integer> tenantCodes;
+   private final int[] tenantColumn;
+   private final ImmutableList<ImmutableSet<String>> subnetSets;
+   private final int[] subnetColumn;
+   private final byte[] statusColumn;
+   private final byte[] typeColumn;
+   private final BitSet adminStateUp;
+   private final BitSet adminStateUpPresent;
+   private final BitSet shared;
+   private final BitSet sharedPresent;
+   private final long[] updatedAtColumn;
+   private final long[] revisionColumn;
+
+   private NetworkInventory(Builder builder) {
+      this.size = builder.size;
+      this.ids = Arrays.copyOf(builder.ids, size);
+      this.names = Arrays.copyOf(builder.names, size);
+      this.rowsById = indexIds(ids, size);
+      this.tenants = builder.tenantCodes.keySet().toArray(new String[builder.tenantCodes.size()]);
+      this.tenantCodes = ImmutableMap.copyOf(builder.tenantCodes);
+      this.tenantColumn = Arrays.copyOf(builder.tenantColumn, size);
+      this.subnetSets = ImmutableList.copyOf(builder.subnetCodes.keySet());
+      this.subnetColumn = Arrays.copyOf(builder.subnetColumn, size);
+      this.statusColumn = Arrays.copyOf(builder.statusColumn, size);
+      this.typeColumn = Arrays.copyOf(builder.typeColumn, size);
+      this.adminStateUp = (BitSet) builder.adminStateUp.clone();
+      this.adminStateUpPresent = (BitSet) builder.adminStateUpPresent.clone();
+      this.shared = (BitSet) builder.shared.clone();
+      this.sharedPresent = (BitSet) builder.sharedPresent.clone();
+      this.updatedAtColumn = Arrays.copyOf(builder.updatedAtColumn, size);
+      this.revisionColumn = Arrays.copyOf(builder.revisionColumn, size);
+   }
+
+   /**
+    * @return a snapshot of the networks; for networks sharing an id, the last one is kept
+    */
+   public static NetworkInventory copyOf(Iterable<Network> networks) {
+      return builder().addAll(networks).build();
+   }
+
+   public static Builder builder() {
+      return new Builder();
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * @return a Network holding the values of the row
+    */
+   @Override
+   public Network get(int row) {
+      checkElementIndex(row, size);
+      return new Network(ids[row],
+            statusColumn[row] == NULL_CODE ? null : STATUSES[statusColumn[row]],
+            subnetColumn[row] == NULL_CODE ? null : subnetSets.get(subnetColumn[row]),
+            names[row],
+            adminStateUpPresent.get(row) ? Boolean.valueOf(adminStateUp.get(row)) : null,
+            sharedPresent.get(row) ? Boolean.valueOf(shared.get(row)) : null,
+            tenantColumn[row] == NULL_CODE ? null : tenants[tenantColumn[row]],
+            typeColumn[row] == NULL_CODE ? null : TYPES[typeColumn[row]],
+            updatedAtColumn[row] == NULL_LONG ? null : new Date(updatedAtColumn[row]),
+            revisionColumn[row] == NULL_LONG ? null : Long.valueOf(revisionColumn[row]));
+   }
+
+   /**
+    * @return the network with the id, or null if the snapshot holds none
+    */
+   @Nullable
+   public Network get(String id) {
+      int row = row(id);
+      return row >= 0 ? get(row) : null;
+   }
+
+   /**
+    * @return true if the snapshot holds a network with the id
+    */
+   public boolean containsId(String id) {
+      return row(id) >= 0;
+   }
+
+   private int row(String id) {
+      if (id == null) {
+         return -1;
+      }
+      int mask = rowsById.length - 1;
+      for (int slot = smear(id.hashCode()) & mask; rowsById[slot] != 0; slot = (slot + 1) & mask) {
+         int row = rowsById[slot] - 1;
+         if (id.equals(ids[row])) {
+            return row;
+         }
+      }
+      return -1;
+   }
+
+   private static int[] indexIds(String[] ids, int size) {
+      // at most half full, so that probes stay short
+      int[] table = new int[Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1];
+      int mask = table.length - 1;
+      for (int row = 0; row < size; row++) {
+         if (ids[row] != null) {
+            int slot = smear(ids[row].hashCode()) & mask;
+            while (table[slot] != 0) {
+               slot = (slot + 1) & mask;
+            }
+            table[slot] = row + 1;
+         }
+      }
+      return table;
+   }
+
+   // spreads the bits of String hash codes, which differ little in their low bits for ids sharing a prefix
+   private static int smear(int hashCode) {
+      return 0x1b873593 * Integer.rotateLeft(hashCode * 0xcc9e2d51, 15);
+   }
+
+   /**
+    * Finds the networks matching all the given criteria; a null criterion matches every network.
+    *
+    * @param tenantId the tenant id of the networks
+    * @param status the status of the networks
+    * @param type the network type of the networks
+    * @return the matching networks, in snapshot order
+    */
+   public List<Network> find(@Nullable String tenantId, @Nullable NetworkStatus status, @Nullable NetworkType type) {
+      int tenantCode = -1;
+      if (tenantId != null) {
+         Integer code = tenantCodes.get(tenantId);
+         if (code == null) {
+            return ImmutableList.of();
+         }
+         tenantCode = code;
+      }
+      byte statusCode = status != null ? (byte) status.ordinal() : NULL_CODE;
+      byte typeCode = type != null ? (byte) type.ordinal() : NULL_CODE;
+
+      ImmutableList.Builder<Network> found = ImmutableList.builder();
+      for (int row = 0; row < size; row++) {
+         if ((tenantId == null || tenantColumn[row] == tenantCode)
+               && (status == null || statusColumn[row] == statusCode)
+               && (type == null || typeColumn[row] == typeCode)) {
+            found.add(get(row));
+         }
+      }
+      return found.build();
+   }
+
+   /**
+    * Collects networks into a NetworkInventory.
+    */
+   public static final class Builder {
+      private static final int INITIAL_CAPACITY = 64;
+
+      private int size;
+      private String[] ids = new String[INITIAL_CAPACITY];
+      private String[] names = new String[INITIAL_CAPACITY];
+      private final Map<String, Integer> rowsById = Maps.newHashMap();
+      private final Map<String, Integer> tenantCodes = Maps.newLinkedHashMap();
+      private int[] tenantColumn = new int[INITIAL_CAPACITY];
+      private final Map<ImmutableSet<String>, Integer> subnetCodes = Maps.newLinkedHashMap();
+      private int[] subnetColumn = new int[INITIAL_CAPACITY];
+      private byte[] statusColumn = new byte[INITIAL_CAPACITY];
+      private byte[] typeColumn = new byte[INITIAL_CAPACITY];
+      private final BitSet adminStateUp = new BitSet();
+      private final BitSet adminStateUpPresent = new BitSet();
+      private final BitSet shared = new BitSet();
+      private final BitSet sharedPresent = new BitSet();
+      private long[] updatedAtColumn = new long[INITIAL_CAPACITY];
+      private long[] revisionColumn = new long[INITIAL_CAPACITY];
+
+      private Builder() {
+      }
+
+      /**
+       * Adds the network, replacing any network added before with the same id.
+       *
+       * @return the Builder.
+       */
+      public Builder add(Network network) {
+         checkNotNull(network, "network");
+         Integer existing = network.getId() != null ? rowsById.get(network.getId()) : null;
+         int row;
+         if (existing != null) {
+            row = existing;
+         } else {
+            row = size++;
+            ensureCapacity(size);
+            if (network.getId() != null) {
+               rowsById.put(network.getId(), row);
+            }
+         }
+         ids[row] = network.getId();
+         names[row] = network.getName();
+         tenantColumn[row] = code(tenantCodes, network.getTenantId());
+         subnetColumn[row] = code(subnetCodes, network.getSubnets());
+         statusColumn[row] = network.getStatus() != null ? (byte) network.getStatus().ordinal() : NULL_CODE;
+         typeColumn[row] = network.getNetworkType() != null ? (byte) network.getNetworkType().ordinal() : NULL_CODE;
+         adminStateUpPresent.set(row, network.isAdminStateUp() != null);
+         adminStateUp.set(row, Boolean.TRUE.equals(network.isAdminStateUp()));
+         sharedPresent.set(row, network.isShared() != null);
+         shared.set(row, Boolean.TRUE.equals(network.isShared()));
+         updatedAtColumn[row] = network.getUpdatedAt() != null ? network.getUpdatedAt().getTime() : NULL_LONG;
+         revisionColumn[row] = network.getRevisionNumber() != null ? network.getRevisionNumber() : NULL_LONG;
+         return this;
+      }
+
+      /**
+       * @return the Builder.
+       * @see #add(Network)
+       */
+      public Builder addAll(Iterable<Network> networks) {
+         for (Network network : checkNotNull(networks, "networks")) {
+            add(network);
+         }
+         return this;
+      }
+
+      public NetworkInventory build() {
+         return new NetworkInventory(this);
+      }
+
+      private static <T> int code(Map<T, Integer> dictionary, T value) {
+         if (value == null) {
+            return NULL_CODE;
+         }
+         Integer code = dictionary.get(value);
+         if (code == null) {
+            code = dictionary.size();
+            dictionary.put(value, code);
+         }
+         return code;
+      }
+
+      private void ensureCapacity(int capacity) {
+         if (capacity > ids.length) {
+            int grown = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, grown);
+            names = Arrays.copyOf(names, grown);
+            tenantColumn = Arrays.copyOf(tenantColumn, grown);
+            subnetColumn = Arrays.copyOf(subnetColumn, grown);
+            statusColumn = Arrays.copyOf(statusColumn, grown);
+            typeColumn = Arrays.copyOf(typeColumn, grown);
+            updatedAtColumn = Arrays.copyOf(updatedAtColumn, grown);
+            revisionColumn = Arrays.copyOf(revisionColumn, grown);
+         }
+      }
+   }
+}
@@ -17,6 +17,12 @@
 
 package org.jclouds.neutron.example.domain;
 
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
 /**
  * Enumerates Network Status.
  */
@@ -30,6 +36,20 @@ public enum NetworkStatus {
     */
    UNRECOGNIZED("unrecognized");
 
+   /**
+    * Lower and upper case spelling of every name, so the common spellings decode without allocating.
+    */
+   private static final Map<String, NetworkStatus> BY_NAME;
+
+   static {
+      Map<String, NetworkStatus> byName = Maps.newHashMap();
+      for (NetworkStatus value : values()) {
+         byName.put(value.name, value);
+         byName.put(value.name.toUpperCase(Locale.ENGLISH), value);
+      }
+      BY_NAME = ImmutableMap.copyOf(byName);
+   }
+
    private final String name;
 
    private NetworkStatus(String name) {
@@ -43,12 +63,11 @@ public enum NetworkStatus {
     */
    public static NetworkStatus fromValue(String name) {
       if (name != null) {
-         for (NetworkStatus value : NetworkStatus.values()) {
-            if (name.equalsIgnoreCase(value.name)) {
-               return value;
-            }
+         NetworkStatus value = BY_NAME.get(name);
+         if (value == null) {
+            value = BY_NAME.get(name.toLowerCase(Locale.ENGLISH));
          }
-         return UNRECOGNIZED;
+         return value != null ? value : UNRECOGNIZED;
       }
       return null;
    }
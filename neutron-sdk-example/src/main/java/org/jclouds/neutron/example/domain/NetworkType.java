@@ -17,6 +17,12 @@
 
 package org.jclouds.neutron.example.domain;
 
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
 /**
  * Enumerates supported Network types.
  */
@@ -51,6 +57,20 @@ public enum NetworkType {
     */
    UNRECOGNIZED("unrecognized");
 
+   /**
+    * Lower and upper case spelling of every name, so the common spellings decode without allocating.
+    */
+   private static final Map<String, NetworkType> BY_NAME;
+
+   static {
+      Map<String, NetworkType> byName = Maps.newHashMap();
+      for (NetworkType value : values()) {
+         byName.put(value.name, value);
+         byName.put(value.name.toUpperCase(Locale.ENGLISH), value);
+      }
+      BY_NAME = ImmutableMap.copyOf(byName);
+   }
+
    private String name;
 
    private NetworkType(String name) {
@@ -64,12 +84,11 @@ public enum NetworkType {
     */
    public static NetworkType fromValue(String name) {
       if (name != null) {
-         for (NetworkType value : NetworkType.values()) {
-            if (name.equalsIgnoreCase(value.name)) {
-               return value;
-            }
+         NetworkType value = BY_NAME.get(name);
+         if (value == null) {
+            value = BY_NAME.get(name.toLowerCase(Locale.ENGLISH));
          }
-         return UNRECOGNIZED;
+         return value != null ? value : UNRECOGNIZED;
       }
       return null;
    }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.domain;
+
+import java.beans.ConstructorProperties;
+
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+
+/**
+ * The {@code NeutronError} a failed Neutron request is answered with, such as
+ * {@code {"NeutronError": {"type": "NetworkNotFound", "message": "Network 1234 could not be found.", "detail": ""}}}.
+ */
+public class NeutronError {
+
+   private final String type;
+   private final String message;
+   private final String detail;
+
+   @ConstructorProperties({ "type", "message", "detail" })
+   public NeutronError(@Nullable String type, @Nullable String message, @Nullable String detail) {
+      this.type = type;
+      this.message = message;
+      this.detail = detail;
+   }
+
+   /**
+    * @return the type of the error, such as {@code NetworkNotFound} or {@code NetworkInUse}; null for services that
+    *         only answer a message
+    */
+   @Nullable
+   public String getType() {
+      return type;
+   }
+
+   /**
+    * @return the message describing the error
+    */
+   @Nullable
+   public String getMessage() {
+      return message;
+   }
+
+   /**
+    * @return further detail on the error, usually empty
+    */
+   @Nullable
+   public String getDetail() {
+      return detail;
+   }
+
+   @Override
+   public int hashCode() {
+      return Objects.hashCode(type, message, detail);
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj) {
+         return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+         return false;
+      }
+      NeutronError that = NeutronError.class.cast(obj);
+      return Objects.equal(this.type, that.type)
+            && Objects.equal(this.message, that.message)
+            && Objects.equal(this.detail, that.detail);
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+            .add("type", type)
+            .add("message", message)
+            .add("detail", detail)
+            .toString();
+   }
+}
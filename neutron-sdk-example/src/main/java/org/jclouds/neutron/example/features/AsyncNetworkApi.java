@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.neutron.example.config.NeutronProperties.TASK_EXECUTOR;
+
+import java.util.concurrent.Callable;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.Networks;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+/**
+ * Offloads the blocking {@link NetworkApi} calls to an executor, returning futures of their results.
+ * <p/>
+ * This is not non-blocking I/O: each operation occupies a thread of the executor until its response has been read,
+ * so the number of operations in flight is bounded by the threads of the executor and the caller only saves its own
+ * thread. With {@link org.jclouds.neutron.example.config.NeutronProperties#VIRTUAL_THREADS} the task executor starts
+ * a virtual thread per operation, which keeps a blocked operation cheap.
+ * <p/>
+ * Every operation is submitted to the given executor and runs through the same {@link NetworkApi} proxy, so requests
+ * are filtered, retried, error-mapped by {@code NeutronErrorHandler} and subject to the same {@code Fallbacks} as
+ * their synchronous counterparts. Mapped exceptions surface as the cause of the {@code ExecutionException} thrown by
+ * {@link ListenableFuture#get()}.
+ * <p/>
+ * Example:
+ * <pre>
+ * AsyncNetworkApi networkApi = new AsyncNetworkApi(neutronApi.getNetworkApi("RegionOne"), executor);
+ * ListenableFuture&lt;Network&gt; network = networkApi.get(id);
+ * </pre>
+ * or, from the context injector, {@code injector.getInstance(AsyncNetworkApi.Factory.class).create("RegionOne")} to
+ * dispatch on the executor selected by {@link org.jclouds.neutron.example.config.NeutronProperties#VIRTUAL_THREADS}.
+ * {@link NeutronApi} has no accessor for it, as the methods of the api proxy can only return requests and other
+ * api proxies.
+ *
+ * @see NetworkApi
+ */
+@Beta
+public class AsyncNetworkApi {
+
+   private final NetworkApi api;
+   private final ListeningExecutorService executor;
+
+   /**
+    * @param api the NetworkApi of the region to operate on
+    * @param executor the executor the requests are dispatched on
+    */
+   public AsyncNetworkApi(NetworkApi api, ListeningExecutorService executor) {
+      this.api = checkNotNull(api, "api");
+      this.executor = checkNotNull(executor, "executor");
+   }
+
+   /**
+    * @see NetworkApi#list(PaginationOptions)
+    */
+   public ListenableFuture<Networks> list(final PaginationOptions options) {
+      return executor.submit(new Callable<Networks>() {
+         @Override
+         public Networks call() {
+            return api.list(options);
+         }
+      });
+   }
+
+   /**
+    * @see NetworkApi#get(String)
+    */
+   public ListenableFuture<Network> get(final String id) {
+      return executor.submit(new Callable<Network>() {
+         @Override
+         public Network call() {
+            return api.get(id);
+         }
+      });
+   }
+
+   /**
+    * @see NetworkApi#create(Network.CreateNetwork)
+    */
+   public ListenableFuture<Network> create(final Network.CreateNetwork network) {
+      return executor.submit(new Callable<Network>() {
+         @Override
+         public Network call() {
+            return api.create(network);
+         }
+      });
+   }
+
+   /**
+    * @see NetworkApi#createBulk(ImmutableList)
+    */
+   public ListenableFuture<FluentIterable<Network>> createBulk(final ImmutableList<Network.CreateNetwork> networks) {
+      return executor.submit(new Callable<FluentIterable<Network>>() {
+         @Override
+         public FluentIterable<Network> call() {
+            return api.createBulk(networks);
+         }
+      });
+   }
+
+   /**
+    * @see NetworkApi#update(String, Network.UpdateNetwork)
+    */
+   public ListenableFuture<Network> update(final String id, final Network.UpdateNetwork network) {
+      return executor.submit(new Callable<Network>() {
+         @Override
+         public Network call() {
+            return api.update(id, network);
+         }
+      });
+   }
+
+   /**
+    * @see NetworkApi#delete(String)
+    */
+   public ListenableFuture<Boolean> delete(final String id) {
+      return executor.submit(new Callable<Boolean>() {
+         @Override
+         public Boolean call() {
+            return api.delete(id);
+         }
+      });
+   }
+
+   /**
+    * Creates AsyncNetworkApis dispatching on the Neutron task executor of the context.
+    */
+   @Singleton
+   public static class Factory {
+      private final NeutronApi neutronApi;
+      private final ListeningExecutorService executor;
+
+      @Inject
+      Factory(NeutronApi neutronApi, @Named(TASK_EXECUTOR) ListeningExecutorService executor) {
+         this.neutronApi = neutronApi;
+         this.executor = executor;
+      }
+
+      /**
+       * @param region the region to operate on
+       * @return an AsyncNetworkApi for the region
+       */
+      public AsyncNetworkApi create(String region) {
+         return new AsyncNetworkApi(neutronApi.getNetworkApi(region), executor);
+      }
+   }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.Networks;
+import org.jclouds.neutron.example.options.ListNetworksOptions;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Looks up many networks by id with a few filtered list requests instead of one {@link NetworkApi#get(String)} per
+ * network.
+ * <p/>
+ * The ids are sent as repeated {@code id=} query parameters, split into batches whose query string stays below a
+ * configurable length so requests are not rejected by servers or proxies limiting the URL length. Batches are
+ * requested concurrently on the given executor.
+ */
+@Beta
+public class BatchNetworkLookup {
+
+   /**
+    * Keeps request lines well below the 8KB limit common to web servers and proxies.
+    */
+   public static final int DEFAULT_MAX_QUERY_LENGTH = 4096;
+
+   private final NetworkApi api;
+   private final ListeningExecutorService executor;
+   private final int maxQueryLength;
+
+   /**
+    * @param api the NetworkApi of the region to look the networks up in
+    * @param executor the executor the batches are requested on
+    */
+   public BatchNetworkLookup(NetworkApi api, ListeningExecutorService executor) {
+      this(api, executor, DEFAULT_MAX_QUERY_LENGTH);
+   }
+
+   /**
+    * @param api the NetworkApi of the region to look the networks up in
+    * @param executor the executor the batches are requested on
+    * @param maxQueryLength the maximum length of the id query parameters of a single request
+    */
+   public BatchNetworkLookup(NetworkApi api, ListeningExecutorService executor, int maxQueryLength) {
+      checkArgument(maxQueryLength > 0, "maxQueryLength must be positive");
+      this.api = checkNotNull(api, "api");
+      this.executor = checkNotNull(executor, "executor");
+      this.maxQueryLength = maxQueryLength;
+   }
+
+   /**
+    * @param ids the ids of the networks to look up
+    * @return the networks found, by id in the order of the ids given; ids that are not found are omitted
+    */
+   public Map<String, Network> getAll(Collection<String> ids) {
+      ImmutableSet<String> unique = ImmutableSet.copyOf(checkNotNull(ids, "ids"));
+      List<ListenableFuture<List<Network>>> responses = Lists.newArrayList();
+      for (final List<String> batch : batches(unique)) {
+         responses.add(executor.submit(new Callable<List<Network>>() {
+            @Override
+            public List<Network> call() {
+               return listAllPages(batch);
+            }
+         }));
+      }
+
+      Map<String, Network> found = Maps.newHashMapWithExpectedSize(unique.size());
+      try {
+         for (ListenableFuture<List<Network>> response : responses) {
+            for (Network network : Uninterruptibles.getUninterruptibly(response)) {
+               found.put(network.getId(), network);
+            }
+         }
+      } catch (ExecutionException e) {
+         for (ListenableFuture<?> response : responses) {
+            response.cancel(true);
+         }
+         throw Throwables.propagate(e.getCause());
+      }
+
+      ImmutableMap.Builder<String, Network> networks = ImmutableMap.builder();
+      for (String id : unique) {
+         Network network = found.get(id);
+         if (network != null) {
+            networks.put(id, network);
+         }
+      }
+      return networks.build();
+   }
+
+   private List<Network> listAllPages(List<String> ids) {
+      ImmutableList.Builder<Network> networks = ImmutableList.builder();
+      Networks page = api.list(ListNetworksOptions.Builder.ids(ids));
+      networks.addAll(page);
+      for (Optional<Object> marker = page.nextMarker(); marker.isPresent(); marker = page.nextMarker()) {
+         page = api.list(PaginationOptions.class.cast(marker.get()));
+         networks.addAll(page);
+      }
+      return networks.build();
+   }
+
+   private List<List<String>> batches(Set<String> ids) {
+      List<List<String>> batches = Lists.newArrayList();
+      List<String> batch = Lists.newArrayList();
+      int length = 0;
+      for (String id : ids) {
+         // "id=" + value + "&"; ids are UUIDs, so URL encoding does not change their length
+         int parameterLength = id.length() + 4;
+         if (!batch.isEmpty() && length + parameterLength > maxQueryLength) {
+            batches.add(batch);
+            batch = Lists.newArrayList();
+            length = 0;
+         }
+         batch.add(id);
+         length += parameterLength;
+      }
+      if (!batch.isEmpty()) {
+         batches.add(batch);
+      }
+      return batches;
+   }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.jclouds.neutron.example.domain.Network;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Throwables;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Creates large numbers of networks by splitting them into chunks sent as separate
+ * {@link NetworkApi#createBulk(ImmutableList)} requests.
+ * <p/>
+ * At most {@code maxInFlight} chunks are dispatched at a time. A failed chunk does not affect the others: the networks
+ * of successful chunks are returned in input order, and each failed chunk is reported with its position in the input.
+ * <p/>
+ * If the caller is interrupted, or the executor rejects a chunk, the chunks not yet completed are cancelled and
+ * reported as failed with that exception, next to the chunks that did complete.
+ */
+@Beta
+public class BulkNetworkCreator {
+
+   private final NetworkApi api;
+   private final ListeningExecutorService executor;
+   private final int chunkSize;
+   private final int maxInFlight;
+
+   /**
+    * @param api the NetworkApi of the region to create the networks in
+    * @param executor the executor the chunks are dispatched on
+    * @param chunkSize the maximum number of networks per createBulk request
+    * @param maxInFlight the maximum number of chunks dispatched concurrently
+    */
+   public BulkNetworkCreator(NetworkApi api, ListeningExecutorService executor, int chunkSize, int maxInFlight) {
+      checkArgument(chunkSize > 0, "chunkSize must be positive");
+      checkArgument(maxInFlight > 0, "maxInFlight must be positive");
+      this.api = checkNotNull(api, "api");
+      this.executor = checkNotNull(executor, "executor");
+      this.chunkSize = chunkSize;
+      this.maxInFlight = maxInFlight;
+   }
+
+   /**
+    * Creates the networks, blocking until every chunk has completed. If interrupted, returns with the interrupt status
+    * set once the outstanding chunks are cancelled.
+    *
+    * @param networks the networks to create
+    * @return the created networks and the chunks that failed
+    */
+   public Result create(List<Network.CreateNetwork> networks) {
+      checkNotNull(networks, "networks");
+      List<List<Network.CreateNetwork>> chunks = Lists.partition(networks, chunkSize);
+      List<ListenableFuture<FluentIterable<Network>>> responses = Lists.newArrayListWithCapacity(chunks.size());
+      final Semaphore inFlight = new Semaphore(maxInFlight);
+      // why the chunks not completed were given up on, if they were
+      Exception stopped = null;
+      try {
+         for (List<Network.CreateNetwork> chunk : chunks) {
+            final ImmutableList<Network.CreateNetwork> request = ImmutableList.copyOf(chunk);
+            inFlight.acquire();
+            try {
+               responses.add(executor.submit(new Callable<FluentIterable<Network>>() {
+                  @Override
+                  public FluentIterable<Network> call() {
+                     try {
+                        return api.createBulk(request);
+                     } finally {
+                        inFlight.release();
+                     }
+                  }
+               }));
+            } catch (RuntimeException e) {
+               inFlight.release();
+               throw e;
+            }
+         }
+         for (ListenableFuture<?> response : responses) {
+            try {
+               response.get();
+            } catch (ExecutionException e) {
+               // reported with its chunk below
+            } catch (CancellationException e) {
+               // cancelled by someone else, reported with its chunk below
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         stopped = e;
+      } catch (RuntimeException e) {
+         // the executor rejected a chunk
+         stopped = e;
+      }
+      if (stopped != null) {
+         for (ListenableFuture<?> response : responses) {
+            response.cancel(true);
+         }
+      }
+
+      // every dispatched chunk is done by now, either completed or cancelled
+      ImmutableList.Builder<Network> created = ImmutableList.builder();
+      ImmutableList.Builder<ChunkFailure> failures = ImmutableList.builder();
+      for (int i = 0; i < chunks.size(); i++) {
+         ImmutableList<Network.CreateNetwork> chunk = ImmutableList.copyOf(chunks.get(i));
+         if (i >= responses.size()) {
+            failures.add(new ChunkFailure(i * chunkSize, chunk, stopped));
+            continue;
+         }
+         try {
+            created.addAll(Uninterruptibles.getUninterruptibly(responses.get(i)));
+         } catch (ExecutionException e) {
+            failures.add(new ChunkFailure(i * chunkSize, chunk, e.getCause()));
+         } catch (CancellationException e) {
+            failures.add(new ChunkFailure(i * chunkSize, chunk, stopped != null ? stopped : e));
+         }
+      }
+      return new Result(created.build(), failures.build());
+   }
+
+   /**
+    * The outcome of a chunked bulk create.
+    */
+   public static final class Result {
+      private final ImmutableList<Network> networks;
+      private final ImmutableList<ChunkFailure> failures;
+
+      private Result(ImmutableList<Network> networks, ImmutableList<ChunkFailure> failures) {
+         this.networks = networks;
+         this.failures = failures;
+      }
+
+      /**
+       * @return the networks created by the successful chunks, in input order
+       */
+      public ImmutableList<Network> getNetworks() {
+         return networks;
+      }
+
+      /**
+       * @return the chunks that failed, in input order
+       */
+      public ImmutableList<ChunkFailure> getFailures() {
+         return failures;
+      }
+
+      /**
+       * @return true if every chunk was created
+       */
+      public boolean isComplete() {
+         return failures.isEmpty();
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this)
+               .add("networks", networks.size())
+               .add("failures", failures)
+               .toString();
+      }
+   }
+
+   /**
+    * A chunk whose createBulk request failed.
+    */
+   public static final class ChunkFailure {
+      private final int offset;
+      private final ImmutableList<Network.CreateNetwork> networks;
+      private final Throwable cause;
+
+      private ChunkFailure(int offset, ImmutableList<Network.CreateNetwork> networks, Throwable cause) {
+         this.offset = offset;
+         this.networks = networks;
+         this.cause = cause;
+      }
+
+      /**
+       * @return the index of the first network of the chunk in the input
+       */
+      public int getOffset() {
+         return offset;
+      }
+
+      /**
+       * @return the networks of the chunk, which can be resubmitted
+       */
+      public ImmutableList<Network.CreateNetwork> getNetworks() {
+         return networks;
+      }
+
+      /**
+       * @return the exception the request failed with, as mapped by the error handler, or the exception that stopped
+       *         the create before the chunk completed; such a chunk may have been created in part or in full
+       */
+      public Throwable getCause() {
+         return cause;
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this)
+               .add("offset", offset)
+               .add("size", networks.size())
+               .add("cause", Throwables.getRootCause(cause).toString())
+               .toString();
+      }
+   }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.neutron.example.config.NeutronProperties.NETWORK_CACHE;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+
+import com.google.common.annotations.Beta;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A {@link NetworkApi} that serves {@link #get(String)} from a read-through cache.
+ * <p/>
+ * Networks returned by create and update calls made through this api replace the cached entry, and deletes evict it.
+ * Changes made by other clients are only seen once the entry expires, so the cache TTL bounds staleness. Networks
+ * that are not found are not cached, and neither are networks read by a get that an update or delete through this api
+ * overlapped, as they may predate the change.
+ *
+ * @see org.jclouds.neutron.example.config.NeutronProperties#NETWORK_CACHE
+ */
+@Beta
+public class CachingNetworkApi extends ForwardingNetworkApi {
+
+   private static final int GENERATION_STRIPES = 64;
+
+   private final NetworkApi delegate;
+   private final Cache<String, Network> cache;
+   // bumped whenever an id hashing to the stripe is invalidated; a get only caches what it read if the generation of
+   // its id did not change meanwhile
+   private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+   /**
+    * @param delegate the NetworkApi cache misses are read from
+    * @param cache the cache of networks by id
+    */
+   public CachingNetworkApi(NetworkApi delegate, Cache<String, Network> cache) {
+      this.delegate = checkNotNull(delegate, "delegate");
+      this.cache = checkNotNull(cache, "cache");
+   }
+
+   @Override
+   protected NetworkApi delegate() {
+      return delegate;
+   }
+
+   @Override
+   public Network get(String id) {
+      Network network = cache.getIfPresent(id);
+      if (network == null) {
+         long generation = generations.get(stripe(id));
+         network = delegate.get(id);
+         if (network != null) {
+            cacheIfCurrent(id, network, generation);
+         }
+      }
+      return network;
+   }
+
+   @Override
+   public Network create(Network.CreateNetwork network) {
+      return cache(delegate.create(network));
+   }
+
+   @Override
+   public FluentIterable<Network> createBulk(ImmutableList<Network.CreateNetwork> networks) {
+      FluentIterable<Network> created = delegate.createBulk(networks);
+      for (Network network : created) {
+         cache(network);
+      }
+      return created;
+   }
+
+   @Override
+   public Network update(String id, Network.UpdateNetwork network) {
+      invalidate(id);
+      Network updated;
+      try {
+         updated = delegate.update(id, network);
+      } finally {
+         // gets that started during the update may have read the previous network
+         invalidate(id);
+      }
+      return cache(updated);
+   }
+
+   @Override
+   public boolean delete(String id) {
+      invalidate(id);
+      try {
+         return delegate.delete(id);
+      } finally {
+         invalidate(id);
+      }
+   }
+
+   private void cacheIfCurrent(String id, Network network, long generation) {
+      int stripe = stripe(id);
+      if (generations.get(stripe) != generation) {
+         return;
+      }
+      cache.put(id, network);
+      if (generations.get(stripe) != generation) {
+         // invalidated while it was put
+         cache.asMap().remove(id, network);
+      }
+   }
+
+   private void invalidate(String id) {
+      generations.incrementAndGet(stripe(id));
+      cache.invalidate(id);
+   }
+
+   private static int stripe(String id) {
+      return (id.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+   }
+
+   private Network cache(Network network) {
+      if (network != null && network.getId() != null) {
+         cache.put(network.getId(), network);
+      }
+      return network;
+   }
+
+   /**
+    * Discards all cached networks.
+    */
+   public void invalidateAll() {
+      for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+         generations.incrementAndGet(stripe);
+      }
+      cache.invalidateAll();
+   }
+
+   /**
+    * @return the hit, miss and eviction counts of the cache; all zero unless the cache records stats
+    */
+   public CacheStats stats() {
+      return cache.stats();
+   }
+
+   /**
+    * Creates CachingNetworkApis backed by the NetworkApi of the context, sharing one cache per region. Concurrent
+    * misses for the same network are coalesced into one request by a {@link CoalescingNetworkApi}.
+    */
+   @Singleton
+   public static class Factory {
+      private final LoadingCache<String, CachingNetworkApi> byRegion;
+
+      @Inject
+      Factory(final NeutronApi neutronApi, @Named(NETWORK_CACHE) final CacheBuilderSpec spec) {
+         checkNotNull(neutronApi, "neutronApi");
+         checkNotNull(spec, "spec");
+         this.byRegion = CacheBuilder.newBuilder().build(new CacheLoader<String, CachingNetworkApi>() {
+            @Override
+            public CachingNetworkApi load(String region) {
+               Cache<String, Network> cache = CacheBuilder.from(spec).recordStats().build();
+               return new CachingNetworkApi(new CoalescingNetworkApi(neutronApi.getNetworkApi(region)), cache);
+            }
+         });
+      }
+
+      /**
+       * @param region the region to operate on
+       * @return the CachingNetworkApi of the region
+       */
+      public CachingNetworkApi create(String region) {
+         return byRegion.getUnchecked(region);
+      }
+   }
+}
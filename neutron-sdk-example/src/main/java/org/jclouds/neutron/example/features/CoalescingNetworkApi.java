@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.jclouds.neutron.example.domain.Network;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * A {@link NetworkApi} that coalesces concurrent {@link #get(String)} calls for the same id into a single request.
+ * <p/>
+ * The first caller for an id issues the request; callers arriving while it is in flight wait for it and receive the
+ * same {@link Network}, the same null for a network that is not found, or the same exception as mapped by the error
+ * handler. Nothing is retained once the request completes, so later calls always issue a new request. Updates and
+ * deletes made through this api detach the request in flight for their id, so gets arriving after them do not receive
+ * a network read before the change.
+ */
+@Beta
+public class CoalescingNetworkApi extends ForwardingNetworkApi {
+
+   private final NetworkApi delegate;
+   private final ConcurrentMap<String, SettableFuture<Network>> inFlight = Maps.newConcurrentMap();
+
+   /**
+    * @param delegate the NetworkApi requests are issued on
+    */
+   public CoalescingNetworkApi(NetworkApi delegate) {
+      this.delegate = checkNotNull(delegate, "delegate");
+   }
+
+   @Override
+   protected NetworkApi delegate() {
+      return delegate;
+   }
+
+   @Override
+   public Network get(String id) {
+      SettableFuture<Network> flight = SettableFuture.create();
+      SettableFuture<Network> existing = inFlight.putIfAbsent(id, flight);
+      if (existing != null) {
+         return await(existing);
+      }
+      try {
+         Network network = delegate.get(id);
+         flight.set(network);
+         return network;
+      } catch (RuntimeException e) {
+         flight.setException(e);
+         throw e;
+      } catch (Error e) {
+         flight.setException(e);
+         throw e;
+      } finally {
+         inFlight.remove(id, flight);
+      }
+   }
+
+   @Override
+   public Network update(String id, Network.UpdateNetwork network) {
+      inFlight.remove(id);
+      try {
+         return delegate.update(id, network);
+      } finally {
+         inFlight.remove(id);
+      }
+   }
+
+   @Override
+   public boolean delete(String id) {
+      inFlight.remove(id);
+      try {
+         return delegate.delete(id);
+      } finally {
+         inFlight.remove(id);
+      }
+   }
+
+   private static Network await(SettableFuture<Network> flight) {
+      try {
+         return Uninterruptibles.getUninterruptibly(flight);
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      }
+   }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import org.jclouds.collect.PagedIterable;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.Networks;
+import org.jclouds.neutron.example.functions.NetworkJsonStream;
+import org.jclouds.neutron.example.options.GetNetworkOptions;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A {@link NetworkApi} which forwards all its method calls to another NetworkApi. Subclasses override the operations
+ * they decorate, in the manner of Guava's {@code Forwarding} collections.
+ */
+@Beta
+public abstract class ForwardingNetworkApi implements NetworkApi {
+
+   /**
+    * @return the NetworkApi calls are forwarded to
+    */
+   protected abstract NetworkApi delegate();
+
+   @Override
+   public PagedIterable<Network> list() {
+      return delegate().list();
+   }
+
+   @Override
+   public Networks list(PaginationOptions options) {
+      return delegate().list(options);
+   }
+
+   @Override
+   public NetworkJsonStream listStream(PaginationOptions options) {
+      return delegate().listStream(options);
+   }
+
+   @Override
+   public Network get(String id) {
+      return delegate().get(id);
+   }
+
+   @Override
+   public Network get(String id, GetNetworkOptions options) {
+      return delegate().get(id, options);
+   }
+
+   @Override
+   public Network create(Network.CreateNetwork network) {
+      return delegate().create(network);
+   }
+
+   @Override
+   public FluentIterable<Network> createBulk(ImmutableList<Network.CreateNetwork> networks) {
+      return delegate().createBulk(networks);
+   }
+
+   @Override
+   public NetworkJsonStream createBulkStream(ImmutableList<Network.CreateNetwork> networks) {
+      return delegate().createBulkStream(networks);
+   }
+
+   @Override
+   public Network update(String id, Network.UpdateNetwork network) {
+      return delegate().update(id, network);
+   }
+
+   @Override
+   public boolean delete(String id) {
+      return delegate().delete(id);
+   }
+}
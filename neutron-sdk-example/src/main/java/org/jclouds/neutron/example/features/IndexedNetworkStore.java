@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.jclouds.collect.IterableWithMarker;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.domain.NetworkType;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * A local store of networks, indexed by tenant, status, network type and subnet.
+ * <p/>
+ * Queries start from the smallest index matching one of their criteria, so their cost depends on the number of
+ * candidate networks rather than on the size of the store. The store is kept up to date by passing it the networks
+ * returned by the service: directly, as the {@link NetworkSynchronizer.Listener} of a synchronizer, or through the
+ * NetworkApi returned by {@link #updatedBy(NetworkApi)}.
+ */
+@Beta
+public class IndexedNetworkStore implements NetworkSynchronizer.Listener {
+
+   private final Map<String, Network> byId = Maps.newHashMap();
+   private final SetMultimap<String, String> idsByTenant = HashMultimap.create();
+   private final SetMultimap<NetworkStatus, String> idsByStatus = HashMultimap.create();
+   private final SetMultimap<NetworkType, String> idsByType = HashMultimap.create();
+   private final SetMultimap<String, String> idsBySubnet = HashMultimap.create();
+
+   /**
+    * Adds the networks of the region to the store, a page at a time. Pages are fetched without holding the store, so
+    * queries made meanwhile are answered from the networks loaded so far.
+    *
+    * @return the IndexedNetworkStore.
+    */
+   public IndexedNetworkStore load(NetworkApi api) {
+      for (IterableWithMarker<Network> page : checkNotNull(api, "api").list()) {
+         ImmutableList<Network> networks = page.toList();
+         putAll(networks);
+      }
+      return this;
+   }
+
+   /**
+    * Adds the network to the store, replacing the network with the same id.
+    *
+    * @return the IndexedNetworkStore.
+    */
+   public synchronized IndexedNetworkStore put(Network network) {
+      checkNotNull(network, "network");
+      String id = checkNotNull(network.getId(), "network id");
+      Network previous = byId.put(id, network);
+      if (previous != null) {
+         unindex(previous);
+      }
+      index(network);
+      return this;
+   }
+
+   /**
+    * @return the IndexedNetworkStore.
+    * @see #put(Network)
+    */
+   public synchronized IndexedNetworkStore putAll(Iterable<Network> networks) {
+      for (Network network : checkNotNull(networks, "networks")) {
+         put(network);
+      }
+      return this;
+   }
+
+   /**
+    * @return the removed network, or null if the store held none with the id
+    */
+   @Nullable
+   public synchronized Network remove(String id) {
+      Network removed = byId.remove(checkNotNull(id, "id"));
+      if (removed != null) {
+         unindex(removed);
+      }
+      return removed;
+   }
+
+   /**
+    * @return the network with the id, or null if the store holds none
+    */
+   @Nullable
+   public synchronized Network get(String id) {
+      return byId.get(id);
+   }
+
+   public synchronized int size() {
+      return byId.size();
+   }
+
+   /**
+    * Finds the networks matching all the given criteria; a null criterion matches every network.
+    *
+    * @param tenantId the tenant id of the networks
+    * @param status the status of the networks
+    * @param type the network type of the networks
+    * @param subnetId a subnet of the networks
+    * @return the matching networks
+    */
+   public synchronized ImmutableList<Network> find(@Nullable String tenantId, @Nullable NetworkStatus status,
+         @Nullable NetworkType type, @Nullable String subnetId) {
+      Collection<String> candidates = byId.keySet();
+      if (tenantId != null) {
+         candidates = smallest(candidates, idsByTenant.get(tenantId));
+      }
+      if (status != null) {
+         candidates = smallest(candidates, idsByStatus.get(status));
+      }
+      if (type != null) {
+         candidates = smallest(candidates, idsByType.get(type));
+      }
+      if (subnetId != null) {
+         candidates = smallest(candidates, idsBySubnet.get(subnetId));
+      }
+
+      ImmutableList.Builder<Network> found = ImmutableList.builder();
+      for (String id : candidates) {
+         Network network = byId.get(id);
+         if ((tenantId == null || tenantId.equals(network.getTenantId()))
+               && (status == null || status == network.getStatus())
+               && (type == null || type == network.getNetworkType())
+               && (subnetId == null || (network.getSubnets() != null && network.getSubnets().contains(subnetId)))) {
+            found.add(network);
+         }
+      }
+      return found.build();
+   }
+
+   /**
+    * @param tenantId the tenant id of the networks
+    * @return the networks of the tenant
+    */
+   public ImmutableList<Network> findByTenant(String tenantId) {
+      return find(checkNotNull(tenantId, "tenantId"), null, null, null);
+   }
+
+   /**
+    * @param subnetId the id of the subnet
+    * @return the networks the subnet belongs to
+    */
+   public ImmutableList<Network> findBySubnet(String subnetId) {
+      return find(null, null, null, checkNotNull(subnetId, "subnetId"));
+   }
+
+   @Override
+   public void networkAdded(Network network) {
+      put(network);
+   }
+
+   @Override
+   public void networkUpdated(Network previous, Network current) {
+      put(current);
+   }
+
+   @Override
+   public void networkRemoved(Network network) {
+      remove(network.getId());
+   }
+
+   /**
+    * @param delegate the NetworkApi to call
+    * @return a NetworkApi that updates this store with the networks it reads, creates, updates and deletes
+    */
+   public NetworkApi updatedBy(final NetworkApi delegate) {
+      checkNotNull(delegate, "delegate");
+      return new ForwardingNetworkApi() {
+         @Override
+         protected NetworkApi delegate() {
+            return delegate;
+         }
+
+         @Override
+         public Network get(String id) {
+            Network network = delegate.get(id);
+            if (network != null) {
+               put(network);
+            } else {
+               remove(id);
+            }
+            return network;
+         }
+
+         @Override
+         public Network create(Network.CreateNetwork network) {
+            return putIfIdentified(delegate.create(network));
+         }
+
+         @Override
+         public FluentIterable<Network> createBulk(ImmutableList<Network.CreateNetwork> networks) {
+            FluentIterable<Network> created = delegate.createBulk(networks);
+            for (Network network : created) {
+               putIfIdentified(network);
+            }
+            return created;
+         }
+
+         @Override
+         public Network update(String id, Network.UpdateNetwork network) {
+            return putIfIdentified(delegate.update(id, network));
+         }
+
+         @Override
+         public boolean delete(String id) {
+            boolean deleted = delegate.delete(id);
+            if (deleted) {
+               remove(id);
+            }
+            return deleted;
+         }
+      };
+   }
+
+   private Network putIfIdentified(Network network) {
+      if (network != null && network.getId() != null) {
+         put(network);
+      }
+      return network;
+   }
+
+   private void index(Network network) {
+      String id = network.getId();
+      if (network.getTenantId() != null) {
+         idsByTenant.put(network.getTenantId(), id);
+      }
+      if (network.getStatus() != null) {
+         idsByStatus.put(network.getStatus(), id);
+      }
+      if (network.getNetworkType() != null) {
+         idsByType.put(network.getNetworkType(), id);
+      }
+      if (network.getSubnets() != null) {
+         for (String subnet : network.getSubnets()) {
+            idsBySubnet.put(subnet, id);
+         }
+      }
+   }
+
+   private void unindex(Network network) {
+      String id = network.getId();
+      idsByTenant.remove(network.getTenantId(), id);
+      idsByStatus.remove(network.getStatus(), id);
+      idsByType.remove(network.getNetworkType(), id);
+      if (network.getSubnets() != null) {
+         for (String subnet : network.getSubnets()) {
+            idsBySubnet.remove(subnet, id);
+         }
+      }
+   }
+
+   private static Collection<String> smallest(Collection<String> candidates, Set<String> indexed) {
+      return indexed.size() < candidates.size() ? indexed : candidates;
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this).add("networks", size()).toString();
+   }
+}
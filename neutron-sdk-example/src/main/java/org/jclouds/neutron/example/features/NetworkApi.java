@@ -28,12 +28,25 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 
 import org.jclouds.Fallbacks;
+import org.jclouds.collect.PagedIterable;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.Networks;
+import org.jclouds.neutron.example.fallbacks.EmptyNetworksFallback;
+import org.jclouds.neutron.example.functions.NetworkJsonStream;
+import org.jclouds.neutron.example.functions.NetworksToPagedIterable;
+import org.jclouds.neutron.example.functions.ParseNetworkList;
+import org.jclouds.neutron.example.functions.ParseNetworks;
+import org.jclouds.neutron.example.functions.StreamNetworks;
+import org.jclouds.neutron.example.options.GetNetworkOptions;
+import org.jclouds.neutron.example.options.ListNetworksOptions;
 import org.jclouds.openstack.keystone.v2_0.filters.AuthenticateRequest;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.ResponseParser;
 import org.jclouds.rest.annotations.SelectJson;
+import org.jclouds.rest.annotations.Transform;
 import org.jclouds.rest.annotations.WrapWith;
 
 import com.google.common.annotations.Beta;
@@ -56,6 +69,52 @@ import com.google.common.collect.ImmutableList;
 @Produces(MediaType.APPLICATION_JSON)
 public interface NetworkApi {
 
+   /**
+    * Returns all networks currently defined in Neutron for the current tenant. The list provides the unique
+    * identifier of each network configured for the tenant.
+    * <p/>
+    * Pages are fetched lazily: the next page is only requested once the consumer iterates past the end of the
+    * current one.
+    *
+    * @return the list of all networks configured for the tenant
+    */
+   @Named("network:list")
+   @GET
+   @Transform(NetworksToPagedIterable.class)
+   @ResponseParser(ParseNetworks.class)
+   @Fallback(Fallbacks.EmptyPagedIterableOnNotFoundOr404.class)
+   PagedIterable<Network> list();
+
+   /**
+    * Returns a single page of networks, starting at the marker and limit in the options.
+    * <p/>
+    * Pass {@link ListNetworksOptions} to filter the networks on the server and select the attributes returned. The
+    * next page links keep the filters, so following {@link Networks#nextMarker()} lists the next matching networks.
+    *
+    * @param options the pagination options, such as limit and marker, or ListNetworksOptions
+    * @return a page of networks, with links to the next page if there is one
+    */
+   @Named("network:list")
+   @GET
+   @ResponseParser(ParseNetworks.class)
+   @Fallback(EmptyNetworksFallback.class)
+   Networks list(PaginationOptions options);
+
+   /**
+    * Returns a single page of networks, as {@link #list(PaginationOptions)} does, decoding each network as it is
+    * read from the response rather than collecting the page first. The links of the page are available from
+    * {@link NetworkJsonStream#getLinks()} once the stream is exhausted.
+    * <p/>
+    * The stream holds the connection until it is exhausted or closed, so close it if it is abandoned early.
+    *
+    * @param options the pagination options, such as limit and marker, or ListNetworksOptions
+    * @return the networks of the page, decoded as they are iterated
+    */
+   @Named("network:list")
+   @GET
+   @ResponseParser(StreamNetworks.class)
+   NetworkJsonStream listStream(PaginationOptions options);
+
    /**
     * Return a specific network
     *
@@ -70,6 +129,21 @@ public interface NetworkApi {
    @Nullable
    Network get(@PathParam("id") String id);
 
+   /**
+    * Return a specific network, with only the attributes selected in the options
+    *
+    * @param id the id of the network to return
+    * @param options the options, such as the fields to return
+    * @return Network or null if not found
+    */
+   @Named("network:get")
+   @GET
+   @Path("/{id}")
+   @SelectJson("network")
+   @Fallback(Fallbacks.NullOnNotFoundOr404.class)
+   @Nullable
+   Network get(@PathParam("id") String id, GetNetworkOptions options);
+
    /**
     * Create a new network with the specified type
     *
@@ -83,15 +157,31 @@ public interface NetworkApi {
 
    /**
     * Create multiple networks
+    * <p/>
+    * The created networks are all decoded before this returns; {@link #createBulkStream(ImmutableList)} decodes them
+    * as they are iterated instead.
     *
     * @param networks the bulk of networks to create
     * @return list of references of the newly-created networks
     */
    @Named("network:createBulk")
    @POST
-   @SelectJson("networks")
+   @ResponseParser(ParseNetworkList.class)
    FluentIterable<Network> createBulk(@WrapWith("networks") ImmutableList<Network.CreateNetwork> networks);
 
+   /**
+    * Create multiple networks, decoding each created network as it is read from the response.
+    * <p/>
+    * The stream holds the connection until it is exhausted or closed, so close it if it is abandoned early.
+    *
+    * @param networks the bulk of networks to create
+    * @return the newly-created networks, decoded as they are iterated
+    */
+   @Named("network:createBulk")
+   @POST
+   @ResponseParser(StreamNetworks.class)
+   NetworkJsonStream createBulkStream(@WrapWith("networks") ImmutableList<Network.CreateNetwork> networks);
+
    /**
     * Update a network
     *
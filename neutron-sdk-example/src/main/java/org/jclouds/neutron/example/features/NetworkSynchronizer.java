@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.Networks;
+import org.jclouds.neutron.example.options.ListNetworksOptions;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Keeps a local index of the networks of a region up to date by polling {@link NetworkApi}, and reports the
+ * differences to a {@link Listener}.
+ * <p/>
+ * The first call to {@link #sync()} lists every network. Later calls only list the networks updated since the most
+ * recent {@code updated_at} seen, using the {@code changed_since} filter of the Neutron timestamp extension, so their
+ * cost is proportional to the number of changes. Deleted networks do not show up in such listings; they are detected
+ * by the full listing done every {@code fullSyncInterval} syncs, and whenever the service does not return
+ * timestamps.
+ * <p/>
+ * Not thread-safe beyond {@link #sync()} being synchronized; listeners are called on the syncing thread.
+ */
+@Beta
+public class NetworkSynchronizer {
+
+   /**
+    * Receives the changes found by a sync.
+    */
+   public interface Listener {
+      /**
+       * @param network a network that was not indexed before
+       */
+      void networkAdded(Network network);
+
+      /**
+       * @param previous the indexed network
+       * @param current the network as now returned by the service
+       */
+      void networkUpdated(Network previous, Network current);
+
+      /**
+       * @param network the indexed network, which is no longer returned by the service
+       */
+      void networkRemoved(Network network);
+   }
+
+   private final NetworkApi api;
+   private final Listener listener;
+   private final int fullSyncInterval;
+   private final Map<String, Network> index = Maps.newHashMap();
+   private Date lastUpdatedAt;
+   private int syncsSinceFullSync;
+
+   /**
+    * @param api the NetworkApi of the region to synchronize
+    * @param listener the listener changes are reported to
+    * @param fullSyncInterval every how many syncs all networks are listed, to detect deletions; 1 lists them on
+    *           every sync
+    */
+   public NetworkSynchronizer(NetworkApi api, Listener listener, int fullSyncInterval) {
+      checkArgument(fullSyncInterval > 0, "fullSyncInterval must be positive");
+      this.api = checkNotNull(api, "api");
+      this.listener = checkNotNull(listener, "listener");
+      this.fullSyncInterval = fullSyncInterval;
+   }
+
+   /**
+    * Brings the index up to date with the service, reporting every change to the listener.
+    */
+   public synchronized void sync() {
+      if (lastUpdatedAt == null || syncsSinceFullSync >= fullSyncInterval - 1) {
+         fullSync();
+      } else {
+         deltaSync();
+      }
+   }
+
+   private void fullSync() {
+      Set<String> removed = Sets.newHashSet(index.keySet());
+      for (Network network : api.list().concat()) {
+         removed.remove(network.getId());
+         apply(network);
+      }
+      for (String id : removed) {
+         listener.networkRemoved(index.remove(id));
+      }
+      syncsSinceFullSync = 0;
+   }
+
+   private void deltaSync() {
+      // changed_since is inclusive, so networks updated during the second of the last change are listed again;
+      // unchanged ones are not reported
+      Networks page = api.list(ListNetworksOptions.Builder.changesSince(lastUpdatedAt).sort("updated_at", true));
+      for (Network network : page) {
+         apply(network);
+      }
+      for (Optional<Object> marker = page.nextMarker(); marker.isPresent(); marker = page.nextMarker()) {
+         page = api.list(PaginationOptions.class.cast(marker.get()));
+         for (Network network : page) {
+            apply(network);
+         }
+      }
+      syncsSinceFullSync++;
+   }
+
+   private void apply(Network network) {
+      Network previous = index.put(network.getId(), network);
+      if (previous == null) {
+         listener.networkAdded(network);
+      } else if (!Objects.equal(previous, network)) {
+         listener.networkUpdated(previous, network);
+      }
+      Date updatedAt = network.getUpdatedAt();
+      if (updatedAt != null && (lastUpdatedAt == null || updatedAt.after(lastUpdatedAt))) {
+         lastUpdatedAt = updatedAt;
+      }
+   }
+
+   /**
+    * @return a copy of the indexed networks, by id
+    */
+   public synchronized Map<String, Network> getNetworks() {
+      return ImmutableMap.copyOf(index);
+   }
+
+   /**
+    * @return the indexed network with the id, or null if there is none
+    */
+   @Nullable
+   public synchronized Network get(String id) {
+      return index.get(id);
+   }
+}
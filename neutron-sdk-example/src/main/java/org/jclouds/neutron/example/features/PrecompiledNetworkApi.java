@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.reflect.Reflection2.method;
+import static org.jclouds.util.Strings2.urlEncode;
+
+import java.net.URI;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.jclouds.Fallback;
+import org.jclouds.Fallbacks.NullOnNotFoundOr404;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.functions.ParseFirstJsonValueNamed;
+import org.jclouds.json.internal.GsonWrapper;
+import org.jclouds.location.Region;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.openstack.keystone.v2_0.filters.AuthenticateRequest;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.annotations.ApiVersion;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.reflect.Invokable;
+import com.google.inject.TypeLiteral;
+
+/**
+ * A {@link NetworkApi} that builds {@link #get(String)} requests from a template compiled once per region, rather than
+ * through the annotation processing of the {@code NetworkApi} proxy on every call.
+ * <p/>
+ * The template holds what the annotations of {@link NetworkApi#get(String)} resolve to: the request filters, the
+ * {@code Accept} header, the {@code network} response parser and the {@code NullOnNotFoundOr404} fallback, so a call
+ * only resolves the endpoint of the region and fills in the id. The requests are still {@link GeneratedHttpRequest}s
+ * of {@code network:get} on the region, so they are retried, error-mapped, measured and limited like those of the
+ * proxy. All other operations are forwarded to the proxy.
+ * <p/>
+ * Obtain one from the context injector with
+ * {@code injector.getInstance(PrecompiledNetworkApi.Factory.class).create("RegionOne")}.
+ */
+@Beta
+public class PrecompiledNetworkApi extends ForwardingNetworkApi {
+
+   private static final Invokable<NetworkApi, Object> GET = method(NetworkApi.class, "get", String.class);
+   private static final Invokable<NeutronApi, Object> GET_NETWORK_API = method(NeutronApi.class, "getNetworkApi",
+         String.class);
+   private static final ImmutableMultimap<String, String> HEADERS = ImmutableMultimap.of(HttpHeaders.ACCEPT,
+         MediaType.APPLICATION_JSON);
+   private static final Fallback<Object> FALLBACK = new NullOnNotFoundOr404();
+
+   private final NetworkApi delegate;
+   private final String region;
+   private final Supplier<Map<String, Supplier<URI>>> regionToEndpoint;
+   private final String path;
+   private final Invocation caller;
+   private final ImmutableList<HttpRequestFilter> filters;
+   private final ParseFirstJsonValueNamed<Network> parser;
+   private final HttpCommandExecutorService http;
+
+   PrecompiledNetworkApi(NetworkApi delegate, String region, Supplier<Map<String, Supplier<URI>>> regionToEndpoint,
+         String apiVersion, HttpRequestFilter authenticateRequest, ParseFirstJsonValueNamed<Network> parser,
+         HttpCommandExecutorService http) {
+      this.delegate = checkNotNull(delegate, "delegate");
+      this.region = checkNotNull(region, "region");
+      this.regionToEndpoint = checkNotNull(regionToEndpoint, "regionToEndpoint");
+      this.path = checkNotNull(apiVersion, "apiVersion") + "/networks/";
+      this.caller = Invocation.create(GET_NETWORK_API, ImmutableList.<Object> of(region));
+      this.filters = ImmutableList.of(checkNotNull(authenticateRequest, "authenticateRequest"));
+      this.parser = checkNotNull(parser, "parser");
+      this.http = checkNotNull(http, "http");
+   }
+
+   @Override
+   protected NetworkApi delegate() {
+      return delegate;
+   }
+
+   @Override
+   public Network get(String id) {
+      try {
+         return parser.apply(http.invoke(new HttpCommand(request(id))));
+      } catch (Exception e) {
+         try {
+            return (Network) FALLBACK.createOrPropagate(e);
+         } catch (Exception propagated) {
+            throw Throwables.propagate(propagated);
+         }
+      }
+   }
+
+   /**
+    * Builds the request {@link #get(String)} sends, without sending it.
+    *
+    * @param id the id of the network
+    * @return the request of {@code get(id)}, as the annotation processor would have built it
+    */
+   public GeneratedHttpRequest request(String id) {
+      checkNotNull(id, "id");
+      // resolved on each call, as the endpoints of the regions are refreshed with the token they come from
+      Supplier<URI> endpoint = regionToEndpoint.get().get(region);
+      checkArgument(endpoint != null, "region %s not in %s", region, regionToEndpoint.get().keySet());
+      String base = endpoint.get().toString();
+      return GeneratedHttpRequest.builder()
+            .method("GET")
+            .endpoint(URI.create(base + (base.endsWith("/") ? "" : "/") + path + urlEncode(id)))
+            .headers(HEADERS)
+            .filters(filters)
+            .invocation(Invocation.create(GET, ImmutableList.<Object> of(id)))
+            .caller(caller)
+            .build();
+   }
+
+   /**
+    * Creates PrecompiledNetworkApis forwarding to the NetworkApi of the context, compiling the template of each region
+    * once. Creating an api makes no request; the endpoint of the region is resolved by its first call.
+    */
+   @Singleton
+   public static class Factory {
+      private final LoadingCache<String, PrecompiledNetworkApi> byRegion;
+
+      @Inject
+      Factory(final NeutronApi neutronApi, @Region final Supplier<Map<String, Supplier<URI>>> regionToEndpoint,
+            @ApiVersion final String apiVersion, final AuthenticateRequest authenticateRequest, GsonWrapper json,
+            final HttpCommandExecutorService http) {
+         checkNotNull(neutronApi, "neutronApi");
+         final ParseFirstJsonValueNamed<Network> parser = new ParseFirstJsonValueNamed<Network>(json,
+               TypeLiteral.get(Network.class), "network");
+         this.byRegion = CacheBuilder.newBuilder().build(new CacheLoader<String, PrecompiledNetworkApi>() {
+            @Override
+            public PrecompiledNetworkApi load(String region) {
+               return new PrecompiledNetworkApi(neutronApi.getNetworkApi(region), region, regionToEndpoint,
+                     apiVersion, authenticateRequest, parser, http);
+            }
+         });
+      }
+
+      /**
+       * @param region the region to operate on
+       * @return the PrecompiledNetworkApi of the region
+       */
+      public PrecompiledNetworkApi create(String region) {
+         return byRegion.getUnchecked(region);
+      }
+   }
+}
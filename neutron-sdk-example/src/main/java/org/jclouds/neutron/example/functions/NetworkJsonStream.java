@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.functions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkInterner;
+import org.jclouds.openstack.v2_0.domain.Link;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Walks the {@code networks} array of a Neutron response token by token, decoding one {@link Network} at a time.
+ * <p/>
+ * Only the network currently being decoded is held in memory, so arbitrarily large listings can be consumed without
+ * buffering the response body. The {@code networks_links} member, if present, is collected on the way and is
+ * available from {@link #getLinks()} once the stream has been exhausted. Networks are passed through the
+ * {@link NetworkInterner}, if one is given, as they are decoded.
+ * <p/>
+ * The stream closes its reader once exhausted; a stream abandoned before then must be closed.
+ */
+public class NetworkJsonStream extends AbstractIterator<Network> implements Closeable {
+
+   private static final String NETWORKS = "networks";
+   private static final String NETWORKS_LINKS = "networks_links";
+   private static final Type LINKS_TYPE = new TypeToken<List<Link>>() {
+      private static final long serialVersionUID = 1L;
+   }.getType();
+
+   private final Gson gson;
+   private final JsonReader reader;
+   private final NetworkInterner interner;
+   private final ImmutableList.Builder<Link> links = ImmutableList.builder();
+   private boolean inNetworks;
+
+   public NetworkJsonStream(Gson gson, Reader in) {
+      this(gson, in, null);
+   }
+
+   public NetworkJsonStream(Gson gson, Reader in, @Nullable NetworkInterner interner) {
+      this.gson = checkNotNull(gson, "gson");
+      this.reader = new JsonReader(checkNotNull(in, "in"));
+      this.interner = interner;
+   }
+
+   @Override
+   protected Network computeNext() {
+      try {
+         if (!inNetworks && !seekToNetworks()) {
+            close();
+            return endOfData();
+         }
+         if (reader.hasNext()) {
+            Network network = gson.fromJson(reader, Network.class);
+            return interner != null ? interner.intern(network) : network;
+         }
+         reader.endArray();
+         inNetworks = false;
+         // Read past whatever follows the array, so trailing links are picked up as well
+         seekToNetworks();
+         close();
+         return endOfData();
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      }
+   }
+
+   /**
+    * Advances to the start of the next {@code networks} array, skipping every other top-level member.
+    *
+    * @return true if positioned inside the array, false if the end of the document was reached
+    */
+   private boolean seekToNetworks() throws IOException {
+      if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+         reader.beginObject();
+      }
+      while (reader.peek() != JsonToken.END_DOCUMENT) {
+         if (reader.peek() == JsonToken.END_OBJECT) {
+            reader.endObject();
+            continue;
+         }
+         String name = reader.nextName();
+         if (NETWORKS.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            inNetworks = true;
+            return true;
+         } else if (NETWORKS_LINKS.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+            List<Link> page = gson.fromJson(reader, LINKS_TYPE);
+            links.addAll(page);
+         } else {
+            reader.skipValue();
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return the pagination links read so far
+    */
+   public ImmutableList<Link> getLinks() {
+      return links.build();
+   }
+
+   @Override
+   public void close() throws IOException {
+      reader.close();
+   }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.functions;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.http.HttpUtils.releasePayload;
+import static org.jclouds.neutron.example.config.NeutronProperties.INTERN_NETWORKS;
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpResponse;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkInterner;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+
+/**
+ * Parses the {@code networks} array of a response, such as the one returned by a bulk create, with a
+ * {@link NetworkJsonStream} instead of selecting and re-serializing the array as {@code @SelectJson} does.
+ * <p/>
+ * The networks are still collected into a list before it returns; {@link StreamNetworks} hands them to the caller
+ * as they are decoded.
+ */
+@Beta
+@Singleton
+public class ParseNetworkList implements Function<HttpResponse, FluentIterable<Network>> {
+
+   private final Gson gson;
+   private final NetworkInterner interner;
+
+   @Inject
+   public ParseNetworkList(Gson gson, NetworkInterner interner, @Named(INTERN_NETWORKS) boolean internNetworks) {
+      this.gson = checkNotNull(gson, "gson");
+      this.interner = internNetworks ? checkNotNull(interner, "interner") : null;
+   }
+
+   @Override
+   public FluentIterable<Network> apply(HttpResponse response) {
+      if (response.getPayload() == null) {
+         return FluentIterable.from(ImmutableList.<Network> of());
+      }
+      NetworkJsonStream stream = null;
+      try {
+         stream = new NetworkJsonStream(gson, new InputStreamReader(response.getPayload().openStream(), UTF_8),
+               interner);
+         return FluentIterable.from(ImmutableList.copyOf(stream));
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      } finally {
+         closeQuietly(stream);
+         releasePayload(response);
+      }
+   }
+}
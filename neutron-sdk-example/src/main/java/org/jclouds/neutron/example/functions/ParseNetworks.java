@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.functions;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.http.HttpUtils.releasePayload;
+import static org.jclouds.neutron.example.config.NeutronProperties.INTERN_NETWORKS;
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpResponse;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkInterner;
+import org.jclouds.neutron.example.domain.Networks;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+
+/**
+ * Used by jclouds to provide more specific collections and fallbacks.
+ * <p/>
+ * The {@code networks} array is decoded with a {@link NetworkJsonStream} straight from the payload, rather than from a
+ * fully buffered response string, and collected into the page. {@link StreamNetworks} hands the networks to the
+ * caller as they are decoded instead.
+ */
+@Beta
+@Singleton
+public class ParseNetworks implements Function<HttpResponse, Networks> {
+
+   private final Gson gson;
+   private final NetworkInterner interner;
+
+   @Inject
+   public ParseNetworks(Gson gson, NetworkInterner interner, @Named(INTERN_NETWORKS) boolean internNetworks) {
+      this.gson = checkNotNull(gson, "gson");
+      this.interner = internNetworks ? checkNotNull(interner, "interner") : null;
+   }
+
+   @Override
+   public Networks apply(HttpResponse response) {
+      if (response.getPayload() == null) {
+         return Networks.EMPTY;
+      }
+      NetworkJsonStream stream = null;
+      try {
+         stream = new NetworkJsonStream(gson, new InputStreamReader(response.getPayload().openStream(), UTF_8),
+               interner);
+         ImmutableList<Network> networks = ImmutableList.copyOf(stream);
+         return new Networks(networks, stream.getLinks());
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      } finally {
+         closeQuietly(stream);
+         releasePayload(response);
+      }
+   }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.functions;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.http.HttpUtils.releasePayload;
+import static org.jclouds.neutron.example.config.NeutronProperties.INTERN_NETWORKS;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpResponse;
+import org.jclouds.neutron.example.domain.NetworkInterner;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.gson.Gson;
+
+/**
+ * Returns the {@code networks} array of a response as a {@link NetworkJsonStream} over the payload, so that networks
+ * are decoded as the caller iterates rather than all at once, as {@link ParseNetworks} and {@link ParseNetworkList}
+ * do. The payload is released when the stream is exhausted or closed.
+ */
+@Beta
+@Singleton
+public class StreamNetworks implements Function<HttpResponse, NetworkJsonStream> {
+
+   private final Gson gson;
+   private final NetworkInterner interner;
+
+   @Inject
+   public StreamNetworks(Gson gson, NetworkInterner interner, @Named(INTERN_NETWORKS) boolean internNetworks) {
+      this.gson = checkNotNull(gson, "gson");
+      this.interner = internNetworks ? checkNotNull(interner, "interner") : null;
+   }
+
+   @Override
+   public NetworkJsonStream apply(HttpResponse response) {
+      if (response.getPayload() == null) {
+         return new NetworkJsonStream(gson, new StringReader("{}"), interner);
+      }
+      try {
+         return new NetworkJsonStream(gson, new InputStreamReader(response.getPayload().openStream(), UTF_8),
+               interner);
+      } catch (IOException e) {
+         releasePayload(response);
+         throw Throwables.propagate(e);
+      }
+   }
+}
@@ -16,30 +16,47 @@
  */
 package org.jclouds.neutron.example.handlers;
 
-import static org.jclouds.http.HttpUtils.closeClientButKeepContentStream;
+import static org.jclouds.http.HttpUtils.releasePayload;
+import static org.jclouds.neutron.example.config.NeutronProperties.ERROR_BODY_LIMIT;
+import static org.jclouds.util.Closeables2.closeQuietly;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpErrorHandler;
 import org.jclouds.http.HttpResponse;
-import org.jclouds.http.HttpResponseException;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.ResourceNotFoundException;
 
+import com.google.common.io.ByteStreams;
+
 /**
  * This will parse and set an appropriate exception on the command object.
+ * <p/>
+ * At most {@link org.jclouds.neutron.example.config.NeutronProperties#ERROR_BODY_LIMIT} bytes of the error body are
+ * read, and they are only decoded once the exception is looked at; see {@link NeutronResponseException}. The
+ * exceptions a status code is mapped to carry the request and status lines as their message, and the
+ * NeutronResponseException as their cause.
  */
 @Singleton
 public class NeutronErrorHandler implements HttpErrorHandler {
-   public void handleError(HttpCommand command, HttpResponse response) {
-      // it is important to always read fully and close streams
-      byte[] data = closeClientButKeepContentStream(response);
-      String message = data != null ? new String(data) : null;
 
-      Exception exception = message != null ? new HttpResponseException(command, response, message)
-            : new HttpResponseException(command, response);
-      message = message != null ? message : String.format("%s -> %s", command.getCurrentRequest().getRequestLine(),
+   private final int errorBodyLimit;
+
+   @Inject
+   NeutronErrorHandler(@Named(ERROR_BODY_LIMIT) int errorBodyLimit) {
+      this.errorBodyLimit = errorBodyLimit;
+   }
+
+   public void handleError(HttpCommand command, HttpResponse response) {
+      Exception exception = readError(command, response);
+      String message = String.format("%s -> %s", command.getCurrentRequest().getRequestLine(),
             response.getStatusLine());
       switch (response.getStatusCode()) {
          case 400:
@@ -54,9 +71,30 @@ public class NeutronErrorHandler implements HttpErrorHandler {
             }
             break;
          case 409:
-            exception = new IllegalStateException(exception.getMessage(), exception);
+            exception = new IllegalStateException(message, exception);
             break;
       }
       command.setException(exception);
    }
+
+   private NeutronResponseException readError(HttpCommand command, HttpResponse response) {
+      if (response.getPayload() == null) {
+         return new NeutronResponseException(command, response, null, false);
+      }
+      InputStream in = null;
+      try {
+         in = response.getPayload().openStream();
+         // one byte more than the limit tells whether the body was truncated
+         byte[] body = ByteStreams.toByteArray(ByteStreams.limit(in, errorBodyLimit + 1L));
+         boolean truncated = body.length > errorBodyLimit;
+         return new NeutronResponseException(command, response, truncated ? Arrays.copyOf(body, errorBodyLimit)
+               : body, truncated);
+      } catch (IOException e) {
+         return new NeutronResponseException(command, response, null, false);
+      } finally {
+         // the rest of a long body is not read; the connection is closed rather than drained
+         closeQuietly(in);
+         releasePayload(response);
+      }
+   }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.handlers;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.neutron.example.domain.NeutronError;
+
+import com.google.common.annotations.Beta;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * The HttpResponseException of a failed Neutron request, carrying the first bytes of the error body.
+ * <p/>
+ * The body is kept as received: it is only decoded as UTF-8 when the content or message is read, and only parsed
+ * into a {@link NeutronError} when {@link #getError()} is called, so that errors nobody looks at, such as the 404s
+ * turned into nulls by fallbacks, cost no more than the read of the body.
+ */
+@Beta
+public class NeutronResponseException extends HttpResponseException {
+
+   private static final long serialVersionUID = 1L;
+
+   private final byte[] body;
+   private final boolean truncated;
+   private transient volatile String content;
+   private transient volatile NeutronError error;
+   private transient volatile boolean parsed;
+
+   /**
+    * @param body the error body, or its first bytes if it was truncated; null if there was none
+    * @param truncated whether the body was longer than what was kept
+    */
+   public NeutronResponseException(HttpCommand command, HttpResponse response, @Nullable byte[] body,
+         boolean truncated) {
+      super((String) null, command, response, (Throwable) null);
+      this.body = body;
+      this.truncated = truncated;
+   }
+
+   @Override
+   public String getMessage() {
+      String content = getContent();
+      String message = String.format("command: %s failed with response: %s", getCommand().getCurrentRequest()
+            .getRequestLine(), getResponse().getStatusLine());
+      if (content == null) {
+         return message;
+      }
+      return String.format("%s; content: [%s%s]", message, content, truncated ? "..." : "");
+   }
+
+   /**
+    * @return the error body decoded as UTF-8, possibly truncated, or null if there was none
+    */
+   @Override
+   @Nullable
+   public String getContent() {
+      if (content == null && body != null) {
+         content = new String(body, UTF_8);
+      }
+      return content;
+   }
+
+   /**
+    * @return whether the error body was longer than its kept content
+    */
+   public boolean isTruncated() {
+      return truncated;
+   }
+
+   /**
+    * @return the NeutronError of the body, or null if the body is not one, such as the HTML page of a proxy or a
+    *         truncated body
+    */
+   @Nullable
+   public NeutronError getError() {
+      if (!parsed) {
+         error = parse(getContent());
+         parsed = true;
+      }
+      return error;
+   }
+
+   @Nullable
+   private static NeutronError parse(@Nullable String content) {
+      if (content == null || !content.trim().startsWith("{")) {
+         return null;
+      }
+      try {
+         JsonElement root = new JsonParser().parse(content);
+         JsonElement error = root.isJsonObject() ? root.getAsJsonObject().get("NeutronError") : null;
+         if (error == null || error.isJsonNull()) {
+            return null;
+         }
+         if (error.isJsonPrimitive()) {
+            // older releases only answer a message
+            return new NeutronError(null, error.getAsString(), null);
+         }
+         if (!error.isJsonObject()) {
+            return null;
+         }
+         JsonObject fields = error.getAsJsonObject();
+         return new NeutronError(string(fields, "type"), string(fields, "message"), string(fields, "detail"));
+      } catch (JsonParseException e) {
+         return null;
+      }
+   }
+
+   @Nullable
+   private static String string(JsonObject object, String member) {
+      JsonElement value = object.get(member);
+      return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+   }
+}
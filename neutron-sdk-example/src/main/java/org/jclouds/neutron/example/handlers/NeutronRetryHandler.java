@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.handlers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.jclouds.Constants.PROPERTY_MAX_RETRIES;
+import static org.jclouds.Constants.PROPERTY_RETRY_DELAY_START;
+import static org.jclouds.http.HttpUtils.releasePayload;
+import static org.jclouds.neutron.example.config.NeutronProperties.RETRY_BUDGET;
+import static org.jclouds.neutron.example.config.NeutronProperties.RETRY_MAX_DELAY;
+import static org.jclouds.neutron.example.config.NeutronProperties.RETRY_OPERATIONS;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.date.DateService;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.logging.Logger;
+import org.jclouds.neutron.example.config.NeutronAccessSupplier;
+import org.jclouds.neutron.example.http.NeutronRequests;
+import org.jclouds.openstack.keystone.v2_0.filters.AuthenticateRequest;
+
+import com.google.common.base.Predicates;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.MapMaker;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Retries requests that failed with a conflict, rate limit, server error or connection error, waiting an
+ * exponentially growing, fully jittered delay between attempts.
+ * <p/>
+ * Only idempotent requests (GET, HEAD, PUT and DELETE) are retried, unless their operation is listed in
+ * {@link org.jclouds.neutron.example.config.NeutronProperties#RETRY_OPERATIONS}. A {@code Retry-After} header
+ * replaces the computed delay. Retries are drawn from a budget shared by all requests, so that a brownout does not
+ * turn into a retry storm: once it is spent, failures are returned to the caller until it refills.
+ * <p/>
+ * A request refused with a 401 is retried once, whatever its method, with a renewed token: the Keystone token it was
+ * made with is discarded, and requests refused together with the same token share one authentication.
+ */
+@Singleton
+public class NeutronRetryHandler implements HttpRetryHandler, IOExceptionRetryHandler {
+
+   private static final Set<String> IDEMPOTENT_METHODS = ImmutableSet.of("GET", "HEAD", "PUT", "DELETE");
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final int maxRetries;
+   private final long baseDelay;
+   private final long maxDelay;
+   private final RateLimiter budget;
+   private final Set<String> retryOperations;
+   private final DateService dateService;
+   private final NeutronAccessSupplier accessSupplier;
+   // identity, not equality, of the commands whose token was renewed
+   private final Set<HttpCommand> renewed = Collections.newSetFromMap(new MapMaker().weakKeys()
+         .<HttpCommand, Boolean> makeMap());
+
+   @Inject
+   NeutronRetryHandler(@Named(PROPERTY_MAX_RETRIES) int maxRetries, @Named(PROPERTY_RETRY_DELAY_START) long baseDelay,
+         @Named(RETRY_MAX_DELAY) long maxDelay, @Named(RETRY_BUDGET) double budget,
+         @Named(RETRY_OPERATIONS) String retryOperations, DateService dateService,
+         NeutronAccessSupplier accessSupplier) {
+      checkArgument(baseDelay > 0, "%s must be positive", PROPERTY_RETRY_DELAY_START);
+      checkArgument(maxDelay >= baseDelay, "%s must not be less than %s", RETRY_MAX_DELAY, PROPERTY_RETRY_DELAY_START);
+      checkArgument(budget > 0, "%s must be positive", RETRY_BUDGET);
+      this.maxRetries = maxRetries;
+      this.baseDelay = baseDelay;
+      this.maxDelay = maxDelay;
+      this.budget = RateLimiter.create(budget);
+      this.retryOperations = ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings()
+            .split(retryOperations));
+      this.dateService = dateService;
+      this.accessSupplier = accessSupplier;
+   }
+
+   @Override
+   public boolean shouldRetryRequest(HttpCommand command, HttpResponse response) {
+      if (response.getStatusCode() == 401) {
+         return renewToken(command, response);
+      }
+      if (!isRetryable(response.getStatusCode()) || !retry(command, retryAfter(response), response.getStatusLine())) {
+         // the error handler reads the body of responses that are not retried
+         return false;
+      }
+      releasePayload(response);
+      return true;
+   }
+
+   @Override
+   public boolean shouldRetryRequest(HttpCommand command, IOException error) {
+      return retry(command, null, error.toString());
+   }
+
+   private boolean renewToken(HttpCommand command, HttpResponse response) {
+      HttpRequest request = command.getCurrentRequest();
+      // authentication requests are not made with a token, and a token is renewed once per request
+      if (!command.isReplayable()
+            || !Iterables.any(request.getFilters(), Predicates.instanceOf(AuthenticateRequest.class))
+            || !renewed.add(command)) {
+         return false;
+      }
+      logger.debug("Renewing the token refused for %s", request.getRequestLine());
+      accessSupplier.invalidateLastSupplied();
+      releasePayload(response);
+      return true;
+   }
+
+   private static boolean isRetryable(int statusCode) {
+      switch (statusCode) {
+         case 409:
+         case 429:
+         case 500:
+         case 502:
+         case 503:
+         case 504:
+            return true;
+         default:
+            return false;
+      }
+   }
+
+   private boolean retry(HttpCommand command, @Nullable Long retryAfter, String cause) {
+      HttpRequest request = command.getCurrentRequest();
+      if (!command.isReplayable() || !isIdempotent(request)) {
+         return false;
+      }
+      int attempt = command.incrementFailureCount();
+      if (attempt > maxRetries) {
+         logger.debug("Cannot retry after %s: %s, giving up after %d attempts", cause, request.getRequestLine(),
+               attempt);
+         return false;
+      }
+      long delay = retryAfter != null ? retryAfter : backoff(attempt, ThreadLocalRandom.current());
+      if (delay > maxDelay) {
+         logger.debug("Cannot retry after %s: %s, Retry-After of %dms exceeds the maximum delay", cause,
+               request.getRequestLine(), delay);
+         return false;
+      }
+      if (!budget.tryAcquire()) {
+         logger.debug("Cannot retry after %s: %s, retry budget exhausted", cause, request.getRequestLine());
+         return false;
+      }
+      logger.debug("Retrying after %s: %s, attempt %d in %dms", cause, request.getRequestLine(), attempt, delay);
+      try {
+         TimeUnit.MILLISECONDS.sleep(delay);
+         return true;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      }
+   }
+
+   private boolean isIdempotent(HttpRequest request) {
+      return IDEMPOTENT_METHODS.contains(request.getMethod())
+            || retryOperations.contains(NeutronRequests.operation(request));
+   }
+
+   /**
+    * Full jitter: a uniformly random delay up to the exponential backoff of the attempt, so that clients that failed
+    * together do not retry together.
+    */
+   long backoff(int attempt, Random random) {
+      long ceiling = baseDelay << Math.min(attempt - 1, 30);
+      if (ceiling <= 0 || ceiling > maxDelay) {
+         ceiling = maxDelay;
+      }
+      return (long) (random.nextDouble() * ceiling);
+   }
+
+   /**
+    * @return the delay requested by a {@code Retry-After} header in milliseconds, or null if there is none
+    */
+   @Nullable
+   private Long retryAfter(HttpResponse response) {
+      String retryAfter = response.getFirstHeaderOrNull(HttpHeaders.RETRY_AFTER);
+      if (retryAfter == null) {
+         return null;
+      }
+      try {
+         return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(retryAfter.trim())));
+      } catch (NumberFormatException e) {
+         try {
+            Date date = dateService.rfc822DateParse(retryAfter);
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+         } catch (IllegalArgumentException notADate) {
+            return null;
+         }
+      }
+   }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.neutron.example.metrics.NeutronMetrics;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Ticker;
+
+/**
+ * Tracks the outcome of the recent requests to a region and stops requests to it while it is failing.
+ * <p/>
+ * While closed, the breaker keeps the outcome of the last {@code window} requests. Once the share of failed requests,
+ * or of requests slower than the slow call duration, reaches the failure rate, it opens: requests are refused for the
+ * open duration. It then half-opens and lets a few probe requests through; it closes if they all succeed promptly and
+ * opens again otherwise. Every change of state is recorded in {@link NeutronMetrics}.
+ */
+public class CircuitBreaker {
+
+   /**
+    * The state of a circuit breaker.
+    */
+   public enum State {
+      /**
+       * Requests are made and their outcome recorded.
+       */
+      CLOSED,
+      /**
+       * Requests are refused.
+       */
+      OPEN,
+      /**
+       * A few probe requests are made to decide whether to close or open again.
+       */
+      HALF_OPEN
+   }
+
+   static final int PROBES = 3;
+
+   private final String region;
+   private final int failureRate;
+   private final long slowCallNanos;
+   private final long openNanos;
+   private final Ticker ticker;
+   private final NeutronMetrics metrics;
+
+   private final boolean[] failed;
+   private final boolean[] slow;
+   private int next;
+   private int calls;
+   private int failures;
+   private int slowCalls;
+
+   private State state = State.CLOSED;
+   private long openedAt;
+   private int probesStarted;
+   private int probesSucceeded;
+
+   /**
+    * @param region the region the breaker protects
+    * @param window the number of recent requests whose outcome is considered
+    * @param failureRate the percentage of failed, or of slow, requests that opens the breaker
+    * @param slowCallDuration the duration in milliseconds above which a request is slow
+    * @param openDuration the time in milliseconds requests are refused once the breaker opens
+    * @param ticker the source of time
+    * @param metrics where changes of state are recorded
+    */
+   public CircuitBreaker(String region, int window, int failureRate, long slowCallDuration, long openDuration,
+         Ticker ticker, NeutronMetrics metrics) {
+      checkArgument(window > 0, "window must be positive");
+      checkArgument(failureRate > 0 && failureRate <= 100, "failureRate must be between 1 and 100");
+      this.region = checkNotNull(region, "region");
+      this.failureRate = failureRate;
+      this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+      this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDuration);
+      this.ticker = checkNotNull(ticker, "ticker");
+      this.metrics = checkNotNull(metrics, "metrics");
+      this.failed = new boolean[window];
+      this.slow = new boolean[window];
+   }
+
+   /**
+    * @return true if a request may be made, in which case its outcome must be passed to
+    *         {@link #onComplete(boolean, long)}
+    */
+   public synchronized boolean tryAcquire() {
+      if (state == State.OPEN) {
+         if (ticker.read() - openedAt < openNanos) {
+            return false;
+         }
+         probesStarted = 0;
+         probesSucceeded = 0;
+         transition(State.HALF_OPEN);
+      }
+      if (state == State.HALF_OPEN) {
+         if (probesStarted >= PROBES) {
+            return false;
+         }
+         probesStarted++;
+      }
+      return true;
+   }
+
+   /**
+    * @param failure true if the request failed
+    * @param latencyNanos the time the request took
+    */
+   public synchronized void onComplete(boolean failure, long latencyNanos) {
+      boolean slowCall = latencyNanos > slowCallNanos;
+      switch (state) {
+         case HALF_OPEN:
+            if (failure || slowCall) {
+               open();
+            } else if (++probesSucceeded >= PROBES) {
+               reset();
+               transition(State.CLOSED);
+            }
+            break;
+         case CLOSED:
+            record(failure, slowCall);
+            if (calls == failed.length
+                  && (failures * 100 >= failureRate * calls || slowCalls * 100 >= failureRate * calls)) {
+               open();
+            }
+            break;
+         default:
+            // a request made before the breaker opened
+            break;
+      }
+   }
+
+   public synchronized State getState() {
+      return state;
+   }
+
+   private void record(boolean failure, boolean slowCall) {
+      if (calls == failed.length) {
+         failures -= failed[next] ? 1 : 0;
+         slowCalls -= slow[next] ? 1 : 0;
+      } else {
+         calls++;
+      }
+      failed[next] = failure;
+      slow[next] = slowCall;
+      failures += failure ? 1 : 0;
+      slowCalls += slowCall ? 1 : 0;
+      next = (next + 1) % failed.length;
+   }
+
+   private void open() {
+      openedAt = ticker.read();
+      reset();
+      transition(State.OPEN);
+   }
+
+   private void reset() {
+      next = 0;
+      calls = 0;
+      failures = 0;
+      slowCalls = 0;
+   }
+
+   private void transition(State to) {
+      state = to;
+      metrics.recordCircuitBreakerState(region, to);
+   }
+
+   @Override
+   public synchronized String toString() {
+      return MoreObjects.toStringHelper(this)
+            .add("region", region)
+            .add("state", state)
+            .add("calls", calls)
+            .add("failures", failures)
+            .add("slowCalls", slowCalls).toString();
+   }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Thrown instead of making a request when the circuit breaker of its region is open, because too many recent
+ * requests to the region failed or were slow.
+ *
+ * @see CircuitBreaker
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+   private static final long serialVersionUID = 1L;
+
+   private final String region;
+
+   public CircuitBreakerOpenException(String region) {
+      super(String.format("circuit breaker of region %s is open", checkNotNull(region, "region")));
+      this.region = region;
+   }
+
+   /**
+    * @return the region whose circuit breaker is open
+    */
+   public String getRegion() {
+      return region;
+   }
+}
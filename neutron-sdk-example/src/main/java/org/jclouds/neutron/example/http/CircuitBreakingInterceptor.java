@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_FAILURE_RATE;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_OPEN_DURATION;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_SLOW_CALL_DURATION;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_WINDOW;
+import static org.jclouds.neutron.example.http.CurrentRegionHttpCommandExecutorService.currentRegion;
+
+import java.io.IOException;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.neutron.example.metrics.NeutronMetrics;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Response;
+
+/**
+ * Makes requests through the {@link CircuitBreaker} of their region, failing fast with a
+ * {@link CircuitBreakerOpenException} while it is open, so that a failing region does not hold up the threads of the
+ * healthy ones.
+ * <p/>
+ * Every attempt of a request is recorded on its own: a server error that is retried to success still counts as a
+ * failure, and the latency of an attempt does not include the backoff before it nor the time it waited for the
+ * {@link ThrottlingInterceptor}. An attempt made while the breaker is open fails the request, retries included.
+ * <p/>
+ * Server errors and attempts that fail without a response count as failures; client errors do not, as they are not
+ * a sign of an unhealthy region. Requests that are not regional, such as authentication, are not broken.
+ */
+@Singleton
+public class CircuitBreakingInterceptor implements Interceptor {
+
+   private final LoadingCache<String, CircuitBreaker> breakersByRegion;
+
+   /**
+    * @param window the number of recent attempts whose outcome is considered in each region
+    * @param failureRate the percentage of failed, or of slow, attempts that opens the breaker of a region
+    * @param slowCallDuration the duration in milliseconds above which an attempt is slow
+    * @param openDuration the time in milliseconds requests to a region are refused once its breaker opens
+    * @param metrics where changes of state are recorded
+    */
+   @Inject
+   public CircuitBreakingInterceptor(@Named(CIRCUIT_BREAKER_WINDOW) final int window,
+         @Named(CIRCUIT_BREAKER_FAILURE_RATE) final int failureRate,
+         @Named(CIRCUIT_BREAKER_SLOW_CALL_DURATION) final long slowCallDuration,
+         @Named(CIRCUIT_BREAKER_OPEN_DURATION) final long openDuration, final NeutronMetrics metrics) {
+      checkNotNull(metrics, "metrics");
+      this.breakersByRegion = CacheBuilder.newBuilder().build(new CacheLoader<String, CircuitBreaker>() {
+         @Override
+         public CircuitBreaker load(String region) {
+            return new CircuitBreaker(region, window, failureRate, slowCallDuration, openDuration,
+                  Ticker.systemTicker(), metrics);
+         }
+      });
+   }
+
+   @Override
+   public Response intercept(Chain chain) throws IOException {
+      String region = currentRegion();
+      if (region == null) {
+         return chain.proceed(chain.request());
+      }
+      CircuitBreaker breaker = breakersByRegion.getUnchecked(region);
+      if (!breaker.tryAcquire()) {
+         throw new CircuitBreakerOpenException(region);
+      }
+      boolean failure = true;
+      long start = System.nanoTime();
+      try {
+         Response response = chain.proceed(chain.request());
+         failure = response.code() >= 500;
+         return response;
+      } finally {
+         breaker.onComplete(failure, System.nanoTime() - start);
+      }
+   }
+
+   /**
+    * @return the state of the circuit breaker of the region
+    */
+   public CircuitBreaker.State getState(String region) {
+      return breakersByRegion.getUnchecked(region).getState();
+   }
+}
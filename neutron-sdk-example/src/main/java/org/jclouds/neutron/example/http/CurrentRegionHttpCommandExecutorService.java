@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.neutron.example.http.NeutronRequests.region;
+import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Makes the region of the request being executed available to the OkHttp interceptors, which run once per attempt
+ * but only see the native request.
+ * <p/>
+ * The region is bound to the calling thread for the whole command, retries included. Commands executed while
+ * preparing an attempt, such as authentication, bind their own region and restore the previous one when they
+ * complete.
+ * <p/>
+ * A {@link CircuitBreakerOpenException} thrown by an interceptor is propagated as is, rather than as the
+ * {@link org.jclouds.http.HttpResponseException} the executor wraps failed attempts in.
+ */
+public class CurrentRegionHttpCommandExecutorService implements HttpCommandExecutorService {
+
+   private static final ThreadLocal<String> CURRENT_REGION = new ThreadLocal<String>();
+
+   private final HttpCommandExecutorService delegate;
+
+   /**
+    * @param delegate the executor requests are made on
+    */
+   public CurrentRegionHttpCommandExecutorService(HttpCommandExecutorService delegate) {
+      this.delegate = checkNotNull(delegate, "delegate");
+   }
+
+   @Override
+   public HttpResponse invoke(HttpCommand command) {
+      String previous = setCurrentRegion(region(command.getCurrentRequest()));
+      try {
+         return delegate.invoke(command);
+      } catch (RuntimeException e) {
+         CircuitBreakerOpenException open = getFirstThrowableOfType(e, CircuitBreakerOpenException.class);
+         throw open != null ? open : e;
+      } finally {
+         setCurrentRegion(previous);
+      }
+   }
+
+   /**
+    * @return the region of the request being executed on the calling thread, or null if there is none or it is not
+    *         regional
+    */
+   @Nullable
+   static String currentRegion() {
+      return CURRENT_REGION.get();
+   }
+
+   /**
+    * @return the region that was current before
+    */
+   @Nullable
+   static String setCurrentRegion(@Nullable String region) {
+      String previous = CURRENT_REGION.get();
+      if (region != null) {
+         CURRENT_REGION.set(region);
+      } else {
+         CURRENT_REGION.remove();
+      }
+      return previous;
+   }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.neutron.example.http.NeutronRequests.operation;
+import static org.jclouds.neutron.example.http.NeutronRequests.region;
+import static org.jclouds.neutron.example.http.NeutronRequests.response;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpMessage;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.neutron.example.metrics.NeutronMetrics;
+
+/**
+ * Records the latency, payload sizes, status code and error type of every request in {@link NeutronMetrics}, keyed
+ * by the operation and region of the request.
+ * <p/>
+ * The latency covers the retries made by the delegate, as that is the latency seen by the caller. Errors are recorded
+ * as the exception the error handler mapped the response to, such as
+ * {@link org.jclouds.rest.ResourceNotFoundException}.
+ */
+public class MeteredHttpCommandExecutorService implements HttpCommandExecutorService {
+
+   private final HttpCommandExecutorService delegate;
+   private final NeutronMetrics metrics;
+
+   public MeteredHttpCommandExecutorService(HttpCommandExecutorService delegate, NeutronMetrics metrics) {
+      this.delegate = checkNotNull(delegate, "delegate");
+      this.metrics = checkNotNull(metrics, "metrics");
+   }
+
+   @Override
+   public HttpResponse invoke(HttpCommand command) {
+      HttpRequest request = command.getCurrentRequest();
+      String operation = operation(request);
+      String region = region(request);
+      long requestBytes = length(request);
+      long start = System.nanoTime();
+      try {
+         HttpResponse response = delegate.invoke(command);
+         metrics.recordResponse(operation, region, response.getStatusCode(), System.nanoTime() - start, requestBytes,
+               length(response), null);
+         return response;
+      } catch (RuntimeException e) {
+         long latency = System.nanoTime() - start;
+         HttpResponse response = response(e);
+         if (response != null) {
+            metrics.recordResponse(operation, region, response.getStatusCode(), latency, requestBytes,
+                  length(response), e);
+         } else {
+            metrics.recordFailure(operation, region, latency, e);
+         }
+         throw e;
+      }
+   }
+
+   private static long length(HttpMessage message) {
+      if (message.getPayload() == null) {
+         return 0;
+      }
+      Long length = message.getPayload().getContentMetadata().getContentLength();
+      return length != null ? length : -1;
+   }
+}
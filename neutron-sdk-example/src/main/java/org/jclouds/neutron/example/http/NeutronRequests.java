@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import java.util.List;
+
+import javax.inject.Named;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+
+/**
+ * Identifies the api operation and region a request was made for, so that requests can be measured and controlled
+ * per operation and region.
+ */
+public final class NeutronRequests {
+
+   private NeutronRequests() {
+      throw new AssertionError("intentionally unimplemented");
+   }
+
+   /**
+    * @return the {@link Named} value of the api method that generated the request, such as {@code network:get}, the
+    *         method name if it is not annotated, or {@code unknown} for requests not made through an api
+    */
+   public static String operation(HttpRequest request) {
+      if (request instanceof GeneratedHttpRequest) {
+         Invocation invocation = GeneratedHttpRequest.class.cast(request).getInvocation();
+         Named named = invocation.getInvokable().getAnnotation(Named.class);
+         return named != null ? named.value() : invocation.getInvokable().getName();
+      }
+      return "unknown";
+   }
+
+   /**
+    * @return the response carried by the exception or one of its causes, such as the response an
+    *         {@link org.jclouds.rest.AuthorizationException} was mapped from, or null if the request failed without a
+    *         response
+    */
+   @Nullable
+   public static HttpResponse response(Throwable exception) {
+      for (HttpResponseException responseException : Iterables.filter(Throwables.getCausalChain(exception),
+            HttpResponseException.class)) {
+         if (responseException.getResponse() != null) {
+            return responseException.getResponse();
+         }
+      }
+      return null;
+   }
+
+   /**
+    * @return the region of the api the request was made on, such as the region passed to
+    *         {@link org.jclouds.neutron.example.NeutronApi#getNetworkApi(String)}, or null for requests that are not
+    *         regional, such as authentication
+    */
+   @Nullable
+   public static String region(HttpRequest request) {
+      if (request instanceof GeneratedHttpRequest) {
+         Invocation caller = GeneratedHttpRequest.class.cast(request).getCaller().orNull();
+         if (caller != null) {
+            List<Object> args = caller.getArgs();
+            if (args.size() == 1 && args.get(0) instanceof String) {
+               return (String) args.get(0);
+            }
+         }
+      }
+      return null;
+   }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.jclouds.neutron.example.config.NeutronProperties.CONCURRENCY_LATENCY_THRESHOLD;
+import static org.jclouds.neutron.example.config.NeutronProperties.CONCURRENCY_LIMIT;
+import static org.jclouds.neutron.example.config.NeutronProperties.RATE_LIMIT;
+import static org.jclouds.neutron.example.http.CurrentRegionHttpCommandExecutorService.currentRegion;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Response;
+
+/**
+ * Limits the rate and the concurrency of the requests made to each region.
+ * <p/>
+ * The rate is limited by a token bucket. The concurrency limit adapts to the service: it grows by one for each window
+ * of requests that complete normally (additive increase), and shrinks by a quarter when a request is throttled with
+ * a 413, 429 or 503 response, fails to connect, or takes longer than the latency threshold (multiplicative decrease).
+ * Requests over either limit wait for their turn. Requests that are not regional, such as authentication, are not
+ * limited.
+ * <p/>
+ * Limits apply to each attempt rather than to the request as a whole: every retry waits for its own turn, no permit
+ * is held while the retry handler backs off, and the outcome and latency of every attempt adjust the limit. A permit
+ * is held until the response headers arrive. The region of an attempt is the one bound by
+ * {@link CurrentRegionHttpCommandExecutorService}.
+ * <p/>
+ * A context authenticates as a single tenant, so the limits of a context apply per region and tenant.
+ */
+@Singleton
+public class ThrottlingInterceptor implements Interceptor {
+
+   private final long latencyThresholdNanos;
+   private final LoadingCache<String, RegionLimits> limitsByRegion;
+
+   /**
+    * @param rateLimit the number of requests per second started in a region, or 0 not to limit the rate
+    * @param maxConcurrency the upper bound of the concurrency limit of a region, or 0 not to limit concurrency
+    * @param latencyThreshold the latency in milliseconds above which a request signals congestion
+    */
+   @Inject
+   public ThrottlingInterceptor(@Named(RATE_LIMIT) final double rateLimit,
+         @Named(CONCURRENCY_LIMIT) final int maxConcurrency,
+         @Named(CONCURRENCY_LATENCY_THRESHOLD) long latencyThreshold) {
+      checkArgument(rateLimit >= 0, "rateLimit must not be negative");
+      checkArgument(maxConcurrency >= 0, "maxConcurrency must not be negative");
+      checkArgument(latencyThreshold > 0, "latencyThreshold must be positive");
+      this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThreshold);
+      this.limitsByRegion = CacheBuilder.newBuilder().build(new CacheLoader<String, RegionLimits>() {
+         @Override
+         public RegionLimits load(String region) {
+            return new RegionLimits(rateLimit > 0 ? RateLimiter.create(rateLimit) : null,
+                  maxConcurrency > 0 ? new AdaptiveLimit(maxConcurrency) : null);
+         }
+      });
+   }
+
+   @Override
+   public Response intercept(Chain chain) throws IOException {
+      String region = currentRegion();
+      if (region == null) {
+         return chain.proceed(chain.request());
+      }
+      RegionLimits limits = limitsByRegion.getUnchecked(region);
+      if (limits.rate != null) {
+         limits.rate.acquire();
+      }
+      if (limits.concurrency == null) {
+         return chain.proceed(chain.request());
+      }
+
+      limits.concurrency.acquire();
+      // an attempt that fails without a response, such as one that cannot connect, signals congestion
+      boolean congested = true;
+      boolean refused = false;
+      long start = System.nanoTime();
+      try {
+         Response response = chain.proceed(chain.request());
+         congested = isThrottled(response.code());
+         return response;
+      } catch (CircuitBreakerOpenException e) {
+         refused = true;
+         throw e;
+      } finally {
+         if (refused) {
+            // refused before reaching the service, which says nothing about its load
+            limits.concurrency.cancel();
+         } else {
+            limits.concurrency.release(congested || System.nanoTime() - start > latencyThresholdNanos);
+         }
+      }
+   }
+
+   private static boolean isThrottled(int statusCode) {
+      return statusCode == 413 || statusCode == 429 || statusCode == 503;
+   }
+
+   /**
+    * @return the current concurrency limit of the region, or 0 if concurrency is not limited
+    */
+   public int getConcurrencyLimit(String region) {
+      AdaptiveLimit concurrency = limitsByRegion.getUnchecked(region).concurrency;
+      return concurrency != null ? concurrency.getLimit() : 0;
+   }
+
+   private static final class RegionLimits {
+      private final RateLimiter rate;
+      private final AdaptiveLimit concurrency;
+
+      private RegionLimits(@Nullable RateLimiter rate, @Nullable AdaptiveLimit concurrency) {
+         this.rate = rate;
+         this.concurrency = concurrency;
+      }
+   }
+
+   /**
+    * An additive-increase, multiplicative-decrease limit on the number of requests in flight.
+    */
+   static final class AdaptiveLimit {
+      private static final double DECREASE = 0.75;
+
+      private final int max;
+      private double limit;
+      private int inFlight;
+
+      AdaptiveLimit(int max) {
+         this.max = max;
+         this.limit = Math.max(1, max / 4);
+      }
+
+      synchronized void acquire() {
+         try {
+            while (inFlight >= (int) limit) {
+               wait();
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+         }
+         inFlight++;
+      }
+
+      synchronized void release(boolean congested) {
+         inFlight--;
+         if (congested) {
+            limit = Math.max(1, limit * DECREASE);
+         } else if (inFlight + 1 >= (int) limit) {
+            // only grow while the limit is actually used, one step per limit's worth of requests
+            limit = Math.min(max, limit + 1 / limit);
+         }
+         notifyAll();
+      }
+
+      synchronized void cancel() {
+         inFlight--;
+         notifyAll();
+      }
+
+      synchronized int getLimit() {
+         return (int) limit;
+      }
+   }
+}
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Singleton;
+
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.neutron.example.http.CircuitBreaker;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Strings;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
+
+/**
+ * Keeps request counts, payload sizes, status codes, error types and a latency histogram per operation and region,
+ * and the state of the circuit breaker of each region.
+ * <p/>
+ * Latencies are counted in buckets whose bounds double from one microsecond up, so percentiles are accurate to a
+ * factor of two while recording stays a few atomic increments.
+ */
+@Beta
+@Singleton
+public class InMemoryNeutronMetrics implements NeutronMetrics {
+
+   private static final int BUCKETS = 40;
+
+   private final ConcurrentMap<ImmutableList<String>, Recorder> recorders = Maps.newConcurrentMap();
+   private final ConcurrentMap<String, CircuitBreaker.State> circuitBreakerStates = Maps.newConcurrentMap();
+
+   @Override
+   public void recordResponse(String operation, @Nullable String region, int statusCode, long latencyNanos,
+         long requestBytes, long responseBytes, @Nullable Exception error) {
+      Recorder recorder = recorder(operation, region);
+      recorder.record(latencyNanos, error);
+      recorder.statusCodes.add(statusCode);
+      if (requestBytes > 0) {
+         recorder.requestBytes.addAndGet(requestBytes);
+      }
+      if (responseBytes > 0) {
+         recorder.responseBytes.addAndGet(responseBytes);
+      }
+   }
+
+   @Override
+   public void recordFailure(String operation, @Nullable String region, long latencyNanos, Exception error) {
+      recorder(operation, region).record(latencyNanos, checkNotNull(error, "error"));
+   }
+
+   @Override
+   public void recordCircuitBreakerState(String region, CircuitBreaker.State state) {
+      circuitBreakerStates.put(checkNotNull(region, "region"), checkNotNull(state, "state"));
+   }
+
+   /**
+    * @return the state of the circuit breaker of each region whose breaker changed state
+    */
+   public ImmutableMap<String, CircuitBreaker.State> getCircuitBreakerStates() {
+      return ImmutableMap.copyOf(circuitBreakerStates);
+   }
+
+   /**
+    * @return a snapshot of the measurements of every operation and region seen so far
+    */
+   public ImmutableList<OperationStats> getStats() {
+      ImmutableList.Builder<OperationStats> stats = ImmutableList.builder();
+      for (Recorder recorder : recorders.values()) {
+         stats.add(recorder.snapshot());
+      }
+      return stats.build();
+   }
+
+   /**
+    * @param operation the api operation, such as {@code network:get}
+    * @param region the region, or null for operations that are not regional
+    * @return a snapshot of the measurements of the operation in the region, or null if it has not been called
+    */
+   @Nullable
+   public OperationStats getStats(String operation, @Nullable String region) {
+      Recorder recorder = recorders.get(key(operation, region));
+      return recorder != null ? recorder.snapshot() : null;
+   }
+
+   /**
+    * Discards all measurements.
+    */
+   public void reset() {
+      recorders.clear();
+      circuitBreakerStates.clear();
+   }
+
+   private Recorder recorder(String operation, @Nullable String region) {
+      ImmutableList<String> key = key(operation, region);
+      Recorder recorder = recorders.get(key);
+      if (recorder == null) {
+         Recorder created = new Recorder(operation, region);
+         recorder = MoreObjects.firstNonNull(recorders.putIfAbsent(key, created), created);
+      }
+      return recorder;
+   }
+
+   private static ImmutableList<String> key(String operation, @Nullable String region) {
+      return ImmutableList.of(checkNotNull(operation, "operation"), Strings.nullToEmpty(region));
+   }
+
+   /**
+    * @return the index of the bucket counting the latency: 0 below 2 microseconds, then one per power of two
+    */
+   private static int bucket(long latencyNanos) {
+      long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+      return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+   }
+
+   private static final class Recorder {
+      private final String operation;
+      private final String region;
+      private final AtomicLong count = new AtomicLong();
+      private final AtomicLong requestBytes = new AtomicLong();
+      private final AtomicLong responseBytes = new AtomicLong();
+      private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+      private final ConcurrentHashMultiset<Integer> statusCodes = ConcurrentHashMultiset.create();
+      private final ConcurrentHashMultiset<String> errors = ConcurrentHashMultiset.create();
+
+      private Recorder(String operation, String region) {
+         this.operation = operation;
+         this.region = region;
+      }
+
+      private void record(long latencyNanos, @Nullable Exception error) {
+         count.incrementAndGet();
+         latencies.incrementAndGet(bucket(latencyNanos));
+         if (error != null) {
+            errors.add(error.getClass().getSimpleName());
+         }
+      }
+
+      private OperationStats snapshot() {
+         long[] buckets = new long[BUCKETS];
+         for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = latencies.get(i);
+         }
+         return new OperationStats(operation, region, count.get(), requestBytes.get(), responseBytes.get(),
+               ImmutableMultiset.copyOf(statusCodes), ImmutableMultiset.copyOf(errors), buckets);
+      }
+   }
+
+   /**
+    * The measurements of an operation in a region at a point in time.
+    */
+   public static final class OperationStats {
+      private final String operation;
+      private final String region;
+      private final long count;
+      private final long requestBytes;
+      private final long responseBytes;
+      private final ImmutableMultiset<Integer> statusCodes;
+      private final ImmutableMultiset<String> errors;
+      private final long[] latencies;
+
+      private OperationStats(String operation, String region, long count, long requestBytes, long responseBytes,
+            ImmutableMultiset<Integer> statusCodes, ImmutableMultiset<String> errors, long[] latencies) {
+         this.operation = operation;
+         this.region = region;
+         this.count = count;
+         this.requestBytes = requestBytes;
+         this.responseBytes = responseBytes;
+         this.statusCodes = statusCodes;
+         this.errors = errors;
+         this.latencies = latencies;
+      }
+
+      /**
+       * @return the api operation, such as {@code network:get}
+       */
+      public String getOperation() {
+         return operation;
+      }
+
+      /**
+       * @return the region, or null for operations that are not regional
+       */
+      @Nullable
+      public String getRegion() {
+         return region;
+      }
+
+      /**
+       * @return the number of requests, failed ones included
+       */
+      public long getCount() {
+         return count;
+      }
+
+      /**
+       * @return the total length of the request payloads whose length was known
+       */
+      public long getRequestBytes() {
+         return requestBytes;
+      }
+
+      /**
+       * @return the total length of the response payloads whose length was known
+       */
+      public long getResponseBytes() {
+         return responseBytes;
+      }
+
+      /**
+       * @return the number of responses by status code
+       */
+      public Multiset<Integer> getStatusCodes() {
+         return statusCodes;
+      }
+
+      /**
+       * @return the number of failed requests by the simple name of the exception they failed with
+       */
+      public Multiset<String> getErrors() {
+         return errors;
+      }
+
+      /**
+       * @param percentile the percentile, between 0 and 100, such as 99
+       * @return an upper bound of the latency of the percentile of requests, within a factor of two, in nanoseconds
+       */
+      public long getLatencyPercentile(double percentile) {
+         checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+         long rank = (long) Math.ceil(count * percentile / 100);
+         long seen = 0;
+         for (int i = 0; i < latencies.length; i++) {
+            seen += latencies[i];
+            if (seen >= rank && seen > 0) {
+               return TimeUnit.MICROSECONDS.toNanos(2L << i);
+            }
+         }
+         return 0;
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this).omitNullValues()
+               .add("operation", operation)
+               .add("region", region)
+               .add("count", count)
+               .add("p50", getLatencyPercentile(50))
+               .add("p99", getLatencyPercentile(99))
+               .add("requestBytes", requestBytes)
+               .add("responseBytes", responseBytes)
+               .add("statusCodes", statusCodes)
+               .add("errors", errors).toString();
+      }
+   }
+}
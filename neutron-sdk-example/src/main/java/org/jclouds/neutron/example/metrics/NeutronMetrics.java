@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.metrics;
+
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.neutron.example.http.CircuitBreaker;
+
+import com.google.common.annotations.Beta;
+import com.google.inject.ImplementedBy;
+
+/**
+ * Receives a measurement for every request made to Neutron and Keystone, keyed by the api operation, such as
+ * {@code network:get}, and the region.
+ * <p/>
+ * Bind an implementation in a module passed to the context to forward the measurements to a metrics library; the
+ * default keeps them in memory.
+ *
+ * @see InMemoryNeutronMetrics
+ */
+@Beta
+@ImplementedBy(InMemoryNeutronMetrics.class)
+public interface NeutronMetrics {
+
+   /**
+    * Records a request that received a response, successful or not.
+    *
+    * @param operation the api operation, such as {@code network:get}
+    * @param region the region of the request, or null if it is not regional
+    * @param statusCode the status code of the response
+    * @param latencyNanos the time from sending the request to receiving the response, retries included
+    * @param requestBytes the length of the request payload, or -1 if unknown
+    * @param responseBytes the length of the response payload, or -1 if unknown
+    * @param error the exception the response was mapped to, or null if it succeeded
+    */
+   void recordResponse(String operation, @Nullable String region, int statusCode, long latencyNanos,
+         long requestBytes, long responseBytes, @Nullable Exception error);
+
+   /**
+    * Records a request that failed without a response, for example because the connection failed.
+    *
+    * @param operation the api operation, such as {@code network:get}
+    * @param region the region of the request, or null if it is not regional
+    * @param latencyNanos the time from sending the request to the failure, retries included
+    * @param error the failure
+    */
+   void recordFailure(String operation, @Nullable String region, long latencyNanos, Exception error);
+
+   /**
+    * Records a change of state of the circuit breaker of a region.
+    *
+    * @param region the region
+    * @param state the new state of its circuit breaker
+    */
+   void recordCircuitBreakerState(String region, CircuitBreaker.State state);
+}
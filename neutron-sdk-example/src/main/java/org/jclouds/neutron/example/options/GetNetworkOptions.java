@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.options;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import org.jclouds.http.options.BaseHttpRequestOptions;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Options for getting a single network.
+ *
+ * @see <a href="https://developer.openstack.org/api-ref/network/v2/#show-network-details">api doc</a>
+ */
+@Beta
+public class GetNetworkOptions extends BaseHttpRequestOptions {
+
+   /**
+    * Returns only the given attributes of the network, such as {@code id} and {@code status}; the others are null
+    * in the returned network.
+    */
+   public GetNetworkOptions fields(String... fields) {
+      checkArgument(fields.length > 0, "fields must not be empty");
+      queryParameters.putAll("fields", Arrays.asList(fields));
+      return this;
+   }
+
+   public static class Builder {
+
+      /**
+       * @see GetNetworkOptions#fields(String...)
+       */
+      public static GetNetworkOptions fields(String... fields) {
+         return new GetNetworkOptions().fields(fields);
+      }
+   }
+}
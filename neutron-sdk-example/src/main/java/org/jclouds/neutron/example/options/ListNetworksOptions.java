@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.options;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Options for listing networks: server-side filters on network attributes, field selection, sorting and
+ * pagination.
+ * <p/>
+ * Filters are combined: only networks matching all of them are listed. Selecting fields makes the service return
+ * only those attributes, leaving the others null in the returned networks.
+ *
+ * @see <a href="https://developer.openstack.org/api-ref/network/v2/#list-networks">api doc</a>
+ */
+@Beta
+public class ListNetworksOptions extends PaginationOptions {
+
+   /**
+    * Returns only the given attributes of each network, such as {@code id} and {@code status}.
+    */
+   public ListNetworksOptions fields(String... fields) {
+      checkArgument(fields.length > 0, "fields must not be empty");
+      queryParameters.putAll("fields", Arrays.asList(fields));
+      return this;
+   }
+
+   /**
+    * Lists only the networks with one of the given ids.
+    */
+   public ListNetworksOptions ids(Iterable<String> ids) {
+      queryParameters.putAll("id", checkNotNull(ids, "ids"));
+      return this;
+   }
+
+   /**
+    * Lists only the networks with the name.
+    */
+   public ListNetworksOptions name(String name) {
+      queryParameters.put("name", checkNotNull(name, "name"));
+      return this;
+   }
+
+   /**
+    * Lists only the networks with the status.
+    */
+   public ListNetworksOptions status(NetworkStatus status) {
+      queryParameters.put("status", checkNotNull(status, "status").toString());
+      return this;
+   }
+
+   /**
+    * Lists only the networks of the tenant.
+    */
+   public ListNetworksOptions tenantId(String tenantId) {
+      queryParameters.put("tenant_id", checkNotNull(tenantId, "tenantId"));
+      return this;
+   }
+
+   /**
+    * Lists only the networks of the provider network type.
+    */
+   public ListNetworksOptions networkType(NetworkType networkType) {
+      queryParameters.put("provider:network_type", checkNotNull(networkType, "networkType").toString());
+      return this;
+   }
+
+   /**
+    * Lists only the networks that are, or are not, shared among tenants.
+    */
+   public ListNetworksOptions shared(boolean shared) {
+      queryParameters.put("shared", Boolean.toString(shared));
+      return this;
+   }
+
+   /**
+    * Sorts the networks by the attribute, such as {@code updated_at}.
+    *
+    * @param key the attribute to sort by
+    * @param ascending true to list the networks in ascending order, false in descending order
+    */
+   public ListNetworksOptions sort(String key, boolean ascending) {
+      queryParameters.put("sort_key", checkNotNull(key, "key"));
+      queryParameters.put("sort_dir", ascending ? "asc" : "desc");
+      return this;
+   }
+
+   /**
+    * Lists only the networks changed since the date, using the {@code changed_since} filter of the Neutron
+    * timestamp extension. The filter is inclusive and has a resolution of seconds.
+    */
+   @Override
+   public ListNetworksOptions changesSince(Date ifModifiedSince) {
+      SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+      format.setTimeZone(TimeZone.getTimeZone("UTC"));
+      queryParameters.put("changed_since", format.format(checkNotNull(ifModifiedSince, "ifModifiedSince")));
+      return this;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public ListNetworksOptions limit(int limit) {
+      super.limit(limit);
+      return this;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public ListNetworksOptions marker(String marker) {
+      super.marker(marker);
+      return this;
+   }
+
+   public static class Builder {
+
+      /**
+       * @see ListNetworksOptions#fields(String...)
+       */
+      public static ListNetworksOptions fields(String... fields) {
+         return new ListNetworksOptions().fields(fields);
+      }
+
+      /**
+       * @see ListNetworksOptions#ids(Iterable)
+       */
+      public static ListNetworksOptions ids(Iterable<String> ids) {
+         return new ListNetworksOptions().ids(ids);
+      }
+
+      /**
+       * @see ListNetworksOptions#name(String)
+       */
+      public static ListNetworksOptions name(String name) {
+         return new ListNetworksOptions().name(name);
+      }
+
+      /**
+       * @see ListNetworksOptions#status(NetworkStatus)
+       */
+      public static ListNetworksOptions status(NetworkStatus status) {
+         return new ListNetworksOptions().status(status);
+      }
+
+      /**
+       * @see ListNetworksOptions#tenantId(String)
+       */
+      public static ListNetworksOptions tenantId(String tenantId) {
+         return new ListNetworksOptions().tenantId(tenantId);
+      }
+
+      /**
+       * @see ListNetworksOptions#networkType(NetworkType)
+       */
+      public static ListNetworksOptions networkType(NetworkType networkType) {
+         return new ListNetworksOptions().networkType(networkType);
+      }
+
+      /**
+       * @see ListNetworksOptions#shared(boolean)
+       */
+      public static ListNetworksOptions shared(boolean shared) {
+         return new ListNetworksOptions().shared(shared);
+      }
+
+      /**
+       * @see ListNetworksOptions#sort(String, boolean)
+       */
+      public static ListNetworksOptions sort(String key, boolean ascending) {
+         return new ListNetworksOptions().sort(key, ascending);
+      }
+
+      /**
+       * @see ListNetworksOptions#changesSince(Date)
+       */
+      public static ListNetworksOptions changesSince(Date ifModifiedSince) {
+         return new ListNetworksOptions().changesSince(ifModifiedSince);
+      }
+
+      /**
+       * @see ListNetworksOptions#limit(int)
+       */
+      public static ListNetworksOptions limit(int limit) {
+         return new ListNetworksOptions().limit(limit);
+      }
+
+      /**
+       * @see ListNetworksOptions#marker(String)
+       */
+      public static ListNetworksOptions marker(String marker) {
+         return new ListNetworksOptions().marker(marker);
+      }
+   }
+}
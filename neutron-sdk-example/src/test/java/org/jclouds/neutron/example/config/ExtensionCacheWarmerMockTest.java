@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Properties;
+import java.util.Set;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.openstack.v2_0.domain.Extension;
+import org.testng.annotations.Test;
+
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests that the extension cache is loaded as the context is created, and that nothing is requested at startup
+ * otherwise
+ */
+@Test
+public class ExtensionCacheWarmerMockTest extends BaseNeutronApiMockTest {
+
+   public void testExtensionsAreLoadedAtStartup() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/extension_list_response.json"))));
+      Properties warm = new Properties();
+      warm.putAll(overrides);
+      warm.setProperty(WARM_EXTENSIONS, "true");
+
+      try {
+         // the direct executor warms the cache before the injector is returned
+         Injector injector = ContextBuilder.newBuilder(new NeutronApiMetadata())
+               .endpoint(server.getUrl("/").toString())
+               .credentials("jclouds:joe", "letmein")
+               .overrides(warm)
+               .modules(ImmutableSet.<Module> of(new ExecutorServiceModule(newDirectExecutorService()),
+                     new SLF4JLoggingModule()))
+               .buildInjector();
+         LoadingCache<String, Set<? extends Extension>> extensionsByRegion = injector.getInstance(
+               Key.get(new TypeLiteral<LoadingCache<String, Set<? extends Extension>>>() {
+               }));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/extensions");
+
+         /*
+          * Check cache
+          */
+         Set<? extends Extension> extensions = extensionsByRegion.getIfPresent("RegionOne");
+         assertNotNull(extensions);
+         assertEquals(extensions.size(), 1);
+         assertEquals(extensions.iterator().next().getId(), "service-type");
+         assertEquals(extensionsByRegion.stats().loadSuccessCount(), 1);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testNothingIsRequestedAtStartupWhenNotWarming() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         assertEquals(server.getRequestCount(), 0);
+
+         neutronApi.getNetworkApi("RegionOne").get("12345");
+
+         /*
+          * Check request
+          */
+         // authenticated by the first call
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+      } finally {
+         server.shutdown();
+      }
+   }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.MAX_IDLE_CONNECTIONS;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Properties;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests connection reuse by the client of NeutronOkHttpClientSupplier
+ */
+@Test
+public class NeutronOkHttpClientSupplierMockTest extends BaseNeutronApiMockTest {
+
+   public void testConnectionsAreReused() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         api.get("12345");
+         api.get("12345");
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         // The sequence number counts the requests made on the same connection
+         assertEquals(server.takeRequest().getSequenceNumber(), 0);
+         assertEquals(server.takeRequest().getSequenceNumber(), 1);
+         assertEquals(server.takeRequest().getSequenceNumber(), 2);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testNoIdleConnections() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      Properties noIdleConnections = new Properties();
+      noIdleConnections.putAll(overrides);
+      noIdleConnections.setProperty(MAX_IDLE_CONNECTIONS, "0");
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", noIdleConnections);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         api.get("12345");
+         api.get("12345");
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         assertEquals(server.takeRequest().getSequenceNumber(), 0);
+         assertEquals(server.takeRequest().getSequenceNumber(), 0);
+         assertEquals(server.takeRequest().getSequenceNumber(), 0);
+      } finally {
+         server.shutdown();
+      }
+   }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.SHARED_TOKEN_CACHE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Properties;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests that contexts with the same credentials share their Keystone token
+ */
+@Test
+public class SharedAccessCacheMockTest extends BaseNeutronApiMockTest {
+
+   public void testContextsShareTheirToken() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      Properties shared = new Properties();
+      shared.putAll(overrides);
+      shared.setProperty(SHARED_TOKEN_CACHE, "true");
+
+      try {
+         NeutronApi first = api(server.getUrl("/").toString(), "openstack-neutron", shared);
+         NeutronApi second = api(server.getUrl("/").toString(), "openstack-neutron", shared);
+
+         assertNotNull(first.getNetworkApi("RegionOne").get("12345"));
+         assertNotNull(second.getNetworkApi("RegionOne").get("12345"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+      } finally {
+         server.shutdown();
+      }
+   }
+}
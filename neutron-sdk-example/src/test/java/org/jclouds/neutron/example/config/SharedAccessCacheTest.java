@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.domain.Credentials;
+import org.jclouds.openstack.keystone.v2_0.domain.Access;
+import org.jclouds.openstack.keystone.v2_0.domain.Tenant;
+import org.jclouds.openstack.keystone.v2_0.domain.Token;
+import org.jclouds.openstack.keystone.v2_0.domain.User;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+
+@Test(groups = "unit", testName = "SharedAccessCacheTest")
+public class SharedAccessCacheTest {
+
+   private static final URI ENDPOINT = URI.create("http://localhost:5000/v2.0/");
+   private static final Credentials JOE = new Credentials("jclouds:joe", "letmein");
+   private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+   private static final long REFRESH_AHEAD = TimeUnit.MINUTES.toMillis(5);
+
+   private long now;
+   private SharedAccessCache cache;
+   private CountingAuthentication authenticate;
+   private QueueingExecutor executor;
+
+   @BeforeMethod
+   public void setUp() {
+      now = 1000000000000L;
+      cache = new SharedAccessCache() {
+         @Override
+         long currentTimeMillis() {
+            return now;
+         }
+      };
+      authenticate = new CountingAuthentication(HOUR);
+      executor = new QueueingExecutor();
+   }
+
+   public void testTokenIsShared() {
+      Access access = cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+
+      assertSame(cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor), access);
+      assertEquals(authenticate.count.get(), 1);
+   }
+
+   public void testTokenIsKeyedByEndpointAndCredentials() {
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+      cache.get(URI.create("http://localhost:5001/v2.0/"), JOE, authenticate, REFRESH_AHEAD, executor);
+      cache.get(ENDPOINT, new Credentials("jclouds:joe", "wrong"), authenticate, REFRESH_AHEAD, executor);
+
+      assertEquals(authenticate.count.get(), 3);
+   }
+
+   public void testTokenIsRenewedInTheBackgroundAheadOfExpiry() {
+      Access access = cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+
+      now += HOUR - REFRESH_AHEAD;
+      // the current token is served while it is renewed
+      assertSame(cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor), access);
+      assertSame(cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor), access);
+      assertEquals(executor.tasks.size(), 1);
+      assertEquals(authenticate.count.get(), 1);
+
+      executor.runAll();
+      Access renewed = cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+      assertEquals(renewed.getToken().getId(), "token-2");
+      assertEquals(authenticate.count.get(), 2);
+   }
+
+   public void testShortLivedTokenIsRenewedHalfWay() {
+      authenticate = new CountingAuthentication(REFRESH_AHEAD);
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+
+      now += REFRESH_AHEAD / 2 - 1;
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+      assertTrue(executor.tasks.isEmpty());
+
+      now += 1;
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+      assertEquals(executor.tasks.size(), 1);
+   }
+
+   public void testExpiredTokenIsRenewedBeforeUse() {
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+
+      now += HOUR;
+      Access renewed = cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+      assertEquals(renewed.getToken().getId(), "token-2");
+      assertTrue(executor.tasks.isEmpty());
+   }
+
+   public void testTokenExpiredOnArrivalIsKeptUntilInvalidated() {
+      authenticate = new CountingAuthentication(-HOUR);
+      Access access = cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+
+      now += HOUR;
+      assertSame(cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor), access);
+      assertTrue(executor.tasks.isEmpty());
+
+      cache.invalidate(ENDPOINT, JOE, "token-1");
+      assertEquals(cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor).getToken().getId(), "token-2");
+   }
+
+   public void testInvalidateOnlyDiscardsTheRefusedToken() {
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+      cache.invalidate(ENDPOINT, JOE, "token-1");
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+
+      // a request refused with the previous token does not discard the renewed one
+      cache.invalidate(ENDPOINT, JOE, "token-1");
+      assertEquals(cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor).getToken().getId(), "token-2");
+      assertEquals(authenticate.count.get(), 2);
+   }
+
+   @Test(timeOut = 10000)
+   public void testRenewalDroppedByAClosedExecutorIsNotWaitedFor() throws InterruptedException {
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+
+      ExecutorService closing = Executors.newSingleThreadExecutor();
+      final CountDownLatch running = new CountDownLatch(1);
+      closing.execute(new Runnable() {
+         @Override
+         public void run() {
+            running.countDown();
+            try {
+               new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      });
+      running.await();
+      now += HOUR - REFRESH_AHEAD;
+      // the renewal is queued behind the blocked task, and dropped when the context closes
+      cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, closing);
+      assertEquals(closing.shutdownNow().size(), 1);
+
+      now += REFRESH_AHEAD;
+      Access renewed = cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor);
+      assertEquals(renewed.getToken().getId(), "token-2");
+      assertEquals(authenticate.count.get(), 2);
+   }
+
+   public void testRenewalIsRetriedAfterAnError() {
+      Function<Credentials, Access> failing = new Function<Credentials, Access>() {
+         @Override
+         public Access apply(Credentials credentials) {
+            throw new AssertionError("keystone unavailable");
+         }
+      };
+      try {
+         cache.get(ENDPOINT, JOE, failing, REFRESH_AHEAD, executor);
+         fail("expected the error of the authentication");
+      } catch (AssertionError expected) {
+         assertEquals(expected.getMessage(), "keystone unavailable");
+      }
+
+      assertEquals(cache.get(ENDPOINT, JOE, authenticate, REFRESH_AHEAD, executor).getToken().getId(), "token-1");
+   }
+
+   private class CountingAuthentication implements Function<Credentials, Access> {
+      private final AtomicInteger count = new AtomicInteger();
+      private final long lifetime;
+
+      CountingAuthentication(long lifetime) {
+         this.lifetime = lifetime;
+      }
+
+      @Override
+      public Access apply(Credentials credentials) {
+         Token token = Token.builder()
+               .id("token-" + count.incrementAndGet())
+               .expires(new Date(now + lifetime))
+               .tenant(Tenant.builder().id("3456").name("jclouds").build())
+               .build();
+         return Access.builder()
+               .token(token)
+               .user(User.builder().id("1234").name("joe").build())
+               .build();
+      }
+   }
+
+   private static class QueueingExecutor implements Executor {
+      private final List<Runnable> tasks = Lists.newArrayList();
+
+      @Override
+      public void execute(Runnable task) {
+         tasks.add(task);
+      }
+
+      void runAll() {
+         for (Runnable task : tasks) {
+            task.run();
+         }
+         tasks.clear();
+      }
+   }
+}
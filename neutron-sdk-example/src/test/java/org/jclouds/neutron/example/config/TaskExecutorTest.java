@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.config;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.jclouds.lifecycle.Closer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Tests the selection of the executor Neutron helpers fan requests out on
+ */
+@Test(groups = "unit", testName = "TaskExecutorTest")
+public class TaskExecutorTest {
+
+   private ListeningExecutorService userExecutor;
+   private Closer closer;
+
+   @BeforeMethod
+   public void setUp() {
+      userExecutor = MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor());
+      closer = new Closer();
+   }
+
+   @AfterMethod
+   public void tearDown() throws IOException {
+      closer.close();
+      userExecutor.shutdownNow();
+   }
+
+   public void testUserThreadsByDefault() {
+      assertSame(NeutronHttpApiModule.taskExecutor(false, FakeExecutors.class, userExecutor, closer), userExecutor);
+   }
+
+   public void testVirtualThreadsFromTheRuntimeFactory() throws InterruptedException, ExecutionException,
+         IOException {
+      ListeningExecutorService executor = NeutronHttpApiModule.taskExecutor(true, FakeExecutors.class, userExecutor,
+            closer);
+
+      assertNotSame(executor, userExecutor);
+      assertEquals(executor.submit(currentThreadName()).get(), "virtual");
+      closer.close();
+      assertTrue(executor.isShutdown());
+   }
+
+   public void testUserThreadsWithoutVirtualThreadSupport() {
+      // the lookup finds no newVirtualThreadPerTaskExecutor(), as on a runtime older than Java 21
+      assertSame(NeutronHttpApiModule.taskExecutor(true, Object.class, userExecutor, closer), userExecutor);
+   }
+
+   public void testVirtualThreadsOfThisRuntime() throws Exception {
+      ListeningExecutorService executor = NeutronHttpApiModule.taskExecutor(true, Executors.class, userExecutor,
+            closer);
+
+      boolean supported = hasVirtualThreads();
+      assertEquals(executor != userExecutor, supported);
+      if (supported) {
+         assertTrue(executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+               return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+            }
+         }).get());
+      }
+   }
+
+   private static boolean hasVirtualThreads() {
+      try {
+         Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+         return true;
+      } catch (NoSuchMethodException e) {
+         return false;
+      }
+   }
+
+   private static Callable<String> currentThreadName() {
+      return new Callable<String>() {
+         @Override
+         public String call() {
+            return Thread.currentThread().getName();
+         }
+      };
+   }
+
+   /**
+    * Stands in for {@link Executors} on a runtime with virtual threads.
+    */
+   public static final class FakeExecutors {
+      public static ExecutorService newVirtualThreadPerTaskExecutor() {
+         return Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+               return new Thread(runnable, "virtual");
+            }
+         });
+      }
+   }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.domain;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.jclouds.neutron.example.config.NeutronProperties.INTERN_NETWORKS;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Properties;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.functions.ParseNetworkList;
+import org.openjdk.jol.info.GraphLayout;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+/**
+ * Compares the heap retained by networks decoded with and without interning.
+ */
+@Test(groups = "unit", testName = "NetworkInternerTest")
+public class NetworkInternerTest {
+
+   private static final int NETWORKS = 1000;
+
+   public void testInternedNetworksShareValues() {
+      ImmutableList<Network> networks = parse(true);
+
+      assertEquals(networks.size(), NETWORKS);
+      assertTrue(networks.get(0).getTenantId() == networks.get(NETWORKS - 1).getTenantId());
+      assertTrue(networks.get(0).getSubnets() == networks.get(NETWORKS - 1).getSubnets());
+      assertEquals(networks.get(NETWORKS - 1).getSubnets().size(), 2);
+   }
+
+   public void testSubnetSetsShareSubnetIds() {
+      NetworkInterner interner = new NetworkInterner();
+      Network first = interner.intern(network(ImmutableSet.of(new String("subnet-a"), new String("subnet-b"))));
+      Network second = interner.intern(network(ImmutableSet.of(new String("subnet-a"), new String("subnet-b"))));
+      Network third = interner.intern(network(ImmutableSet.of(new String("subnet-a"))));
+
+      assertSame(second.getSubnets(), first.getSubnets());
+      assertSame(Iterables.getOnlyElement(third.getSubnets()), first.getSubnets().iterator().next());
+   }
+
+   public void testInternedNetworksRetainLessHeap() {
+      ImmutableList<Network> plain = parse(false);
+      ImmutableList<Network> interned = parse(true);
+      assertEquals(interned, plain);
+
+      long plainBytesPerNetwork = GraphLayout.parseInstance(plain).totalSize() / NETWORKS;
+      long internedBytesPerNetwork = GraphLayout.parseInstance(interned).totalSize() / NETWORKS;
+      // every network of the payload has the same tenant and subnets, so interning saves about their size per network
+      long sharedBytes = GraphLayout.parseInstance(plain.get(0).getTenantId()).totalSize()
+            + GraphLayout.parseInstance(plain.get(0).getSubnets()).totalSize();
+      assertTrue(plainBytesPerNetwork - internedBytesPerNetwork >= sharedBytes * 9 / 10, String.format(
+            "%d bytes per network interned, %d without, expected to save about %d", internedBytesPerNetwork,
+            plainBytesPerNetwork, sharedBytes));
+   }
+
+   private static Network network(ImmutableSet<String> subnets) {
+      return new Network("624312ff-d14b-4ba3-9834-1c78d23d574d", NetworkStatus.ACTIVE, subnets, "jclouds-wibble", true,
+            false, new String("c1210485b2424d48804aad5d39c61b8f"), NetworkType.VLAN, null, null);
+   }
+
+   private static ImmutableList<Network> parse(boolean intern) {
+      Properties overrides = new Properties();
+      overrides.setProperty(INTERN_NETWORKS, Boolean.toString(intern));
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      ParseNetworkList parser = ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint("http://localhost:5000/v2.0/")
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .buildInjector()
+            .getInstance(ParseNetworkList.class);
+      FluentIterable<Network> networks = parser.apply(HttpResponse.builder()
+            .statusCode(200)
+            .payload(networks().getBytes(UTF_8))
+            .build());
+      return networks.toList();
+   }
+
+   private static String networks() {
+      StringBuilder json = new StringBuilder("{\"networks\": [");
+      for (int i = 0; i < NETWORKS; i++) {
+         if (i > 0) {
+            json.append(',');
+         }
+         json.append("{\"provider:network_type\": \"vlan\", \"status\": \"ACTIVE\", ")
+               .append("\"subnets\": [\"3c4c6e42-1a6c-4ea1-b1b9-ab0b4b6d9a4b\", \"54d6f61d-db07-451c-9ab3-b9609b6b6f0b\"], ")
+               .append("\"name\": \"jclouds-wibble-").append(i).append("\", \"admin_state_up\": true, \"shared\": false, ")
+               .append("\"tenant_id\": \"c1210485b2424d48804aad5d39c61b8f\", ")
+               .append(String.format("\"id\": \"624312ff-d14b-4ba3-9834-%012d\"}", i));
+      }
+      return json.append("]}").toString();
+   }
+}
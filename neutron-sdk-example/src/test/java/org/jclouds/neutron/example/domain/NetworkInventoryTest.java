@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.domain;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests the columnar encoding of {@link NetworkInventory}.
+ */
+@Test(groups = "unit", testName = "NetworkInventoryTest")
+public class NetworkInventoryTest {
+
+   private static final int NETWORKS = 1000;
+
+   public void testRowsReadBackAsNetworks() {
+      ImmutableList<Network> networks = networks(NETWORKS);
+      NetworkInventory inventory = NetworkInventory.copyOf(networks);
+
+      assertEquals(inventory.size(), NETWORKS);
+      assertEquals(inventory, networks);
+      assertEquals(inventory.get("network-7"), networks.get(7));
+      assertTrue(inventory.containsId("network-7"));
+      assertNull(inventory.get("missing"));
+   }
+
+   public void testNullAttributesAreKept() {
+      Network empty = new Network(null, null, null, null, null, null, null, null, null, null);
+      NetworkInventory inventory = NetworkInventory.copyOf(ImmutableList.of(empty));
+
+      assertEquals(inventory.get(0), empty);
+      assertFalse(inventory.containsId("network-0"));
+   }
+
+   public void testAddReplacesNetworkWithSameId() {
+      ImmutableList<Network> networks = networks(2);
+      Network renamed = new Network("network-0", NetworkStatus.DOWN, null, "renamed", false, null, "tenant-9",
+            null, null, 2L);
+
+      NetworkInventory inventory = NetworkInventory.builder().addAll(networks).add(renamed).build();
+
+      assertEquals(inventory.size(), 2);
+      assertEquals(inventory.get(0), renamed);
+      assertEquals(inventory.get(1), networks.get(1));
+   }
+
+   public void testFind() {
+      NetworkInventory inventory = NetworkInventory.copyOf(networks(NETWORKS));
+
+      List<Network> found = inventory.find("tenant-1", NetworkStatus.DOWN, null);
+
+      assertEquals(found.size(), NETWORKS / 10);
+      for (Network network : found) {
+         assertEquals(network.getTenantId(), "tenant-1");
+         assertEquals(network.getStatus(), NetworkStatus.DOWN);
+      }
+      assertEquals(inventory.find(null, null, NetworkType.VLAN).size(), NETWORKS);
+      assertEquals(inventory.find(null, null, null).size(), NETWORKS);
+      assertTrue(inventory.find("missing", null, null).isEmpty());
+   }
+
+   public void testFindMatchesAScanOfTheNetworks() {
+      ImmutableList<Network> networks = networks(NETWORKS);
+      NetworkInventory inventory = NetworkInventory.copyOf(networks);
+
+      for (String tenantId : Arrays.asList(null, "tenant-0", "tenant-3")) {
+         for (NetworkStatus status : Arrays.asList(null, NetworkStatus.ACTIVE, NetworkStatus.DOWN)) {
+            for (NetworkType type : Arrays.asList(null, NetworkType.VLAN, NetworkType.FLAT)) {
+               ImmutableList.Builder<Network> scanned = ImmutableList.builder();
+               for (Network network : networks) {
+                  if ((tenantId == null || Objects.equal(network.getTenantId(), tenantId))
+                        && (status == null || network.getStatus() == status)
+                        && (type == null || network.getNetworkType() == type)) {
+                     scanned.add(network);
+                  }
+               }
+               assertEquals(inventory.find(tenantId, status, type), scanned.build(),
+                     tenantId + " " + status + " " + type);
+            }
+         }
+      }
+   }
+
+   public void testLookupById() {
+      ImmutableList<Network> networks = networks(NETWORKS);
+      NetworkInventory inventory = NetworkInventory.copyOf(networks);
+
+      for (Network network : networks) {
+         assertEquals(inventory.get(network.getId()), network);
+      }
+      assertNull(inventory.get(null));
+      assertFalse(inventory.containsId("network-" + NETWORKS));
+      assertFalse(NetworkInventory.builder().build().containsId("network-0"));
+   }
+
+   public void testInventoryRetainsLessHeap() {
+      ImmutableList<Network> networks = networks(NETWORKS);
+      NetworkInventory inventory = NetworkInventory.copyOf(networks);
+
+      // the id and name strings are the same objects in both, so only what each holds beyond them is compared
+      long stringBytes = 0;
+      for (Network network : networks) {
+         stringBytes += GraphLayout.parseInstance(network.getId()).totalSize()
+               + GraphLayout.parseInstance(network.getName()).totalSize();
+      }
+      long networkBytes = GraphLayout.parseInstance(networks).totalSize() - stringBytes;
+      long inventoryBytes = GraphLayout.parseInstance(inventory).totalSize() - stringBytes;
+      assertTrue(inventoryBytes * 4 <= networkBytes, "expected a fourth of " + networkBytes + " bytes, was "
+            + inventoryBytes);
+   }
+
+   private static ImmutableList<Network> networks(int count) {
+      ImmutableList.Builder<Network> networks = ImmutableList.builder();
+      for (int i = 0; i < count; i++) {
+         networks.add(new Network("network-" + i,
+               i % 2 == 0 ? NetworkStatus.ACTIVE : NetworkStatus.DOWN,
+               ImmutableSet.of("subnet-" + (i % 4)),
+               "net" + i,
+               i % 3 != 0,
+               false,
+               "tenant-" + (i % 5),
+               NetworkType.VLAN,
+               new Date(1500000000000L + i * 1000L),
+               (long) i));
+      }
+      return networks.build();
+   }
+}
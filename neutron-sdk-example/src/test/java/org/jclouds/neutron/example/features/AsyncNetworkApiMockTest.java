@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests AsyncNetworkApi dispatching and exception mapping
+ */
+@Test
+public class AsyncNetworkApiMockTest extends BaseNeutronApiMockTest {
+
+   private final ListeningExecutorService executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(2));
+
+   @AfterClass(alwaysRun = true)
+   public void shutdownExecutor() {
+      executor.shutdownNow();
+   }
+
+   public void testGetNetwork() throws IOException, InterruptedException, URISyntaxException, ExecutionException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         AsyncNetworkApi api = new AsyncNetworkApi(neutronApi.getNetworkApi("RegionOne"), executor);
+
+         Network network = api.get("12345").get();
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+
+         /*
+          * Check response
+          */
+         assertNotNull(network);
+         assertEquals(network.getId(), "624312ff-d14b-4ba3-9834-1c78d23d574d");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testGetNetworkFail() throws IOException, InterruptedException, URISyntaxException, ExecutionException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         AsyncNetworkApi api = new AsyncNetworkApi(neutronApi.getNetworkApi("RegionOne"), executor);
+
+         /*
+          * Check response
+          */
+         assertNull(api.get("12345").get());
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testCreateNetworkFail() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         AsyncNetworkApi api = new AsyncNetworkApi(neutronApi.getNetworkApi("RegionOne"), executor);
+
+         Network.CreateNetwork createNetwork = Network.createBuilder("jclouds-wibble")
+               .networkType(NetworkType.LOCAL)
+               .build();
+
+         try {
+            api.create(createNetwork).get();
+            fail("Expected an ExecutionException");
+         } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ResourceNotFoundException, e.getCause().toString());
+         }
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testDeleteNetworkFail() throws IOException, InterruptedException, URISyntaxException, ExecutionException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         AsyncNetworkApi api = new AsyncNetworkApi(neutronApi.getNetworkApi("RegionOne"), executor);
+
+         boolean result = api.delete("123456").get();
+
+         /*
+          * Check request
+          */
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "DELETE", "/v2.0/networks/123456");
+
+         /*
+          * Check response
+          */
+         assertFalse(result);
+      } finally {
+         server.shutdown();
+      }
+   }
+}
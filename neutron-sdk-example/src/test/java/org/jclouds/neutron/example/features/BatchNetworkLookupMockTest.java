@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests BatchNetworkLookup batching and result mapping
+ */
+@Test
+public class BatchNetworkLookupMockTest extends BaseNeutronApiMockTest {
+
+   public void testGetAllInBatches() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_bulk_create_response.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody("{\"networks\": []}")));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         // Room for two ids per request
+         BatchNetworkLookup lookup = new BatchNetworkLookup(neutronApi.getNetworkApi("RegionOne"),
+               MoreExecutors.newDirectExecutorService(), 80);
+
+         Map<String, Network> networks = lookup.getAll(ImmutableList.of(
+               "624312ff-d14b-4ba3-9834-1c78d23d574e",
+               "624312ff-d14b-4ba3-9834-1c78d23d574d",
+               "00000000-0000-0000-0000-000000000000"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET",
+               "/v2.0/networks?id=624312ff-d14b-4ba3-9834-1c78d23d574e&id=624312ff-d14b-4ba3-9834-1c78d23d574d");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks?id=00000000-0000-0000-0000-000000000000");
+
+         /*
+          * Check response
+          */
+         assertEquals(networks.size(), 2);
+         assertEquals(ImmutableList.copyOf(networks.keySet()), ImmutableList.of(
+               "624312ff-d14b-4ba3-9834-1c78d23d574e",
+               "624312ff-d14b-4ba3-9834-1c78d23d574d"));
+         assertEquals(networks.get("624312ff-d14b-4ba3-9834-1c78d23d574d").getName(), "jclouds-wibble");
+         assertFalse(networks.containsKey("00000000-0000-0000-0000-000000000000"));
+      } finally {
+         server.shutdown();
+      }
+   }
+}
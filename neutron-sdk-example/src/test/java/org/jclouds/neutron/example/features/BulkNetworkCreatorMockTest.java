@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ForwardingListeningExecutorService;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests BulkNetworkCreator chunking and failure reporting
+ */
+@Test
+public class BulkNetworkCreatorMockTest extends BaseNeutronApiMockTest {
+
+   public void testCreateInChunks() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(201).setBody(stringFromResource("/network_bulk_create_response.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         BulkNetworkCreator creator = new BulkNetworkCreator(neutronApi.getNetworkApi("RegionOne"),
+               MoreExecutors.newDirectExecutorService(), 2, 1);
+
+         BulkNetworkCreator.Result result = creator.create(ImmutableList.of(
+               Network.createBuilder("jclouds-wibble").networkType(NetworkType.LOCAL).build(),
+               Network.createBuilder("jclouds-wibble2").networkType(NetworkType.LOCAL).build(),
+               Network.createBuilder("jclouds-wibble3").networkType(NetworkType.LOCAL).build()));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks", "/network_bulk_create_request.json");
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+
+         /*
+          * Check response
+          */
+         assertFalse(result.isComplete());
+         assertEquals(result.getNetworks().size(), 2);
+         assertEquals(result.getNetworks().get(0).getName(), "jclouds-wibble");
+         assertEquals(result.getNetworks().get(1).getName(), "jclouds-wibble2");
+         assertEquals(result.getFailures().size(), 1);
+         assertEquals(result.getFailures().get(0).getOffset(), 2);
+         assertEquals(result.getFailures().get(0).getNetworks().get(0).getName(), "jclouds-wibble3");
+         assertTrue(result.getFailures().get(0).getCause() instanceof ResourceNotFoundException);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testChunksRejectedByTheExecutorAreReported() throws IOException, InterruptedException,
+         URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(201).setBody(stringFromResource("/network_bulk_create_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         // accepts the first chunk only, as the executor of a context closing meanwhile would
+         ListeningExecutorService executor = new ForwardingListeningExecutorService() {
+            private final ListeningExecutorService delegate = MoreExecutors.newDirectExecutorService();
+            private int submitted;
+
+            @Override
+            protected ListeningExecutorService delegate() {
+               return delegate;
+            }
+
+            @Override
+            public <T> ListenableFuture<T> submit(Callable<T> task) {
+               if (submitted++ > 0) {
+                  throw new RejectedExecutionException("closed");
+               }
+               return super.submit(task);
+            }
+         };
+         BulkNetworkCreator creator = new BulkNetworkCreator(neutronApi.getNetworkApi("RegionOne"), executor, 2, 1);
+
+         BulkNetworkCreator.Result result = creator.create(ImmutableList.of(
+               Network.createBuilder("jclouds-wibble").networkType(NetworkType.LOCAL).build(),
+               Network.createBuilder("jclouds-wibble2").networkType(NetworkType.LOCAL).build(),
+               Network.createBuilder("jclouds-wibble3").networkType(NetworkType.LOCAL).build()));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks", "/network_bulk_create_request.json");
+
+         /*
+          * Check response
+          */
+         assertFalse(result.isComplete());
+         assertEquals(result.getNetworks().size(), 2);
+         assertEquals(result.getFailures().size(), 1);
+         assertEquals(result.getFailures().get(0).getOffset(), 2);
+         assertTrue(result.getFailures().get(0).getCause() instanceof RejectedExecutionException);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testInterruptedCreateReportsEveryChunk() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         BulkNetworkCreator creator = new BulkNetworkCreator(neutronApi.getNetworkApi("RegionOne"),
+               MoreExecutors.newDirectExecutorService(), 2, 1);
+
+         Thread.currentThread().interrupt();
+         BulkNetworkCreator.Result result;
+         try {
+            result = creator.create(ImmutableList.of(
+                  Network.createBuilder("jclouds-wibble").networkType(NetworkType.LOCAL).build(),
+                  Network.createBuilder("jclouds-wibble2").networkType(NetworkType.LOCAL).build(),
+                  Network.createBuilder("jclouds-wibble3").networkType(NetworkType.LOCAL).build()));
+         } finally {
+            assertTrue(Thread.interrupted());
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 0);
+
+         /*
+          * Check response
+          */
+         assertTrue(result.getNetworks().isEmpty());
+         assertEquals(result.getFailures().size(), 2);
+         assertEquals(result.getFailures().get(0).getOffset(), 0);
+         assertEquals(result.getFailures().get(1).getOffset(), 2);
+         assertTrue(result.getFailures().get(1).getCause() instanceof InterruptedException);
+      } finally {
+         server.shutdown();
+      }
+   }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.google.common.cache.CacheBuilder;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Tests CachingNetworkApi hits, misses and invalidation
+ */
+@Test
+public class CachingNetworkApiMockTest extends BaseNeutronApiMockTest {
+
+   public void testGetNetworkIsCached() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         CachingNetworkApi api = new CachingNetworkApi(neutronApi.getNetworkApi("RegionOne"),
+               CacheBuilder.newBuilder().maximumSize(10).recordStats().<String, Network> build());
+
+         Network network = api.get("624312ff-d14b-4ba3-9834-1c78d23d574d");
+         Network cached = api.get("624312ff-d14b-4ba3-9834-1c78d23d574d");
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/624312ff-d14b-4ba3-9834-1c78d23d574d");
+
+         /*
+          * Check response
+          */
+         assertNotNull(network);
+         assertTrue(cached == network);
+         assertEquals(api.stats().hitCount(), 1);
+         assertEquals(api.stats().missCount(), 1);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testDeleteNetworkInvalidates() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(204)));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         CachingNetworkApi api = new CachingNetworkApi(neutronApi.getNetworkApi("RegionOne"),
+               CacheBuilder.newBuilder().maximumSize(10).recordStats().<String, Network> build());
+
+         assertNotNull(api.get("624312ff-d14b-4ba3-9834-1c78d23d574d"));
+         assertTrue(api.delete("624312ff-d14b-4ba3-9834-1c78d23d574d"));
+         assertNull(api.get("624312ff-d14b-4ba3-9834-1c78d23d574d"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 4);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/624312ff-d14b-4ba3-9834-1c78d23d574d");
+         assertRequest(server.takeRequest(), "DELETE", "/v2.0/networks/624312ff-d14b-4ba3-9834-1c78d23d574d");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/624312ff-d14b-4ba3-9834-1c78d23d574d");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testDeleteDuringGetIsNotOverwritten() throws Exception {
+      MockWebServer server = mockOpenStackServer();
+      String url = server.getUrl("/").toString();
+      final String access = stringFromResource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      final String network = stringFromResource("/network_get_response.json");
+      final AtomicInteger gets = new AtomicInteger();
+      final CountDownLatch getSent = new CountDownLatch(1);
+      final CountDownLatch deleted = new CountDownLatch(1);
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (request.getPath().endsWith("/tokens")) {
+               return addCommonHeaders(new MockResponse().setBody(access));
+            }
+            if ("DELETE".equals(request.getMethod())) {
+               deleted.countDown();
+               return addCommonHeaders(new MockResponse().setResponseCode(204));
+            }
+            if (gets.incrementAndGet() > 1) {
+               return addCommonHeaders(new MockResponse().setResponseCode(404));
+            }
+            // the first get reads the network before the delete and answers after it
+            getSent.countDown();
+            deleted.await(10, TimeUnit.SECONDS);
+            return addCommonHeaders(new MockResponse().setResponseCode(200).setBody(network));
+         }
+      });
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+
+      try {
+         NeutronApi neutronApi = api(url, "openstack-neutron", overrides);
+         final CachingNetworkApi api = new CachingNetworkApi(
+               new CoalescingNetworkApi(neutronApi.getNetworkApi("RegionOne")),
+               CacheBuilder.newBuilder().maximumSize(10).recordStats().<String, Network> build());
+
+         Future<Network> stale = executor.submit(new Callable<Network>() {
+            @Override
+            public Network call() {
+               return api.get("624312ff-d14b-4ba3-9834-1c78d23d574d");
+            }
+         });
+         assertTrue(getSent.await(10, TimeUnit.SECONDS));
+         assertTrue(api.delete("624312ff-d14b-4ba3-9834-1c78d23d574d"));
+         assertNotNull(stale.get(10, TimeUnit.SECONDS));
+
+         /*
+          * Check response
+          */
+         assertNull(api.get("624312ff-d14b-4ba3-9834-1c78d23d574d"));
+         assertEquals(gets.get(), 2);
+      } finally {
+         executor.shutdownNow();
+         server.shutdown();
+      }
+   }
+}
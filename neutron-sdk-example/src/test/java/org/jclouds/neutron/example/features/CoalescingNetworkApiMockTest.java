@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests that CoalescingNetworkApi issues one request for concurrent callers
+ */
+@Test
+public class CoalescingNetworkApiMockTest extends BaseNeutronApiMockTest {
+
+   private static final int CALLERS = 20;
+
+   public void testConcurrentGetNetworkIssuesOneRequest() throws IOException, InterruptedException,
+         URISyntaxException, ExecutionException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      // Slow enough for every caller to join the request in flight
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200)
+            .setBody(stringFromResource("/network_get_response.json"))
+            .throttleBody(16, 100, TimeUnit.MILLISECONDS)));
+
+      ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         final NetworkApi api = new CoalescingNetworkApi(neutronApi.getNetworkApi("RegionOne"));
+         final CountDownLatch start = new CountDownLatch(1);
+
+         List<Future<Network>> results = Lists.newArrayList();
+         for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(new Callable<Network>() {
+               @Override
+               public Network call() throws InterruptedException {
+                  start.await();
+                  return api.get("12345");
+               }
+            }));
+         }
+         start.countDown();
+
+         Network first = results.get(0).get();
+         for (Future<Network> result : results) {
+            assertTrue(result.get() == first);
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+
+         /*
+          * Check response
+          */
+         assertNotNull(first);
+         assertEquals(first.getId(), "624312ff-d14b-4ba3-9834-1c78d23d574d");
+      } finally {
+         executor.shutdownNow();
+         server.shutdown();
+      }
+   }
+}
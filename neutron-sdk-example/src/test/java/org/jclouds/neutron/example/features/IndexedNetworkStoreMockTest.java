@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Tests IndexedNetworkStore queries and updates
+ */
+@Test
+public class IndexedNetworkStoreMockTest extends BaseNeutronApiMockTest {
+
+   public void testLoadAndFind() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged1.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged2.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         IndexedNetworkStore store = new IndexedNetworkStore().load(neutronApi.getNetworkApi("RegionOne"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks?marker=4f7b4c8f-3a1e-4fbd-9a57-0c9b86f2e0f1");
+
+         /*
+          * Check queries
+          */
+         assertEquals(store.size(), 4);
+         assertEquals(store.findByTenant("1234567890").size(), 4);
+         assertTrue(store.findByTenant("0987654321").isEmpty());
+         assertEquals(store.find(null, NetworkStatus.ACTIVE, null, null).size(), 2);
+
+         ImmutableList<Network> vlans = store.find("1234567890", NetworkStatus.DOWN, NetworkType.VLAN,
+               "3c4c6e42-1a6c-4ea1-b1b9-ab0b4b6d9a4b");
+         assertEquals(vlans.size(), 1);
+         assertEquals(vlans.get(0).getId(), "4f7b4c8f-3a1e-4fbd-9a57-0c9b86f2e0f1");
+         assertEquals(store.findBySubnet("3c4c6e42-1a6c-4ea1-b1b9-ab0b4b6d9a4b"), vlans);
+         assertTrue(store.find(null, NetworkStatus.ACTIVE, NetworkType.VLAN, null).isEmpty());
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testQueriesAreAnsweredWhileLoading() throws Exception {
+      MockWebServer server = mockOpenStackServer();
+      String url = server.getUrl("/").toString();
+      final String access = stringFromResource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      final String page1 = stringFromResource("/network_list_response_paged1.json");
+      final String page2 = stringFromResource("/network_list_response_paged2.json");
+      final IndexedNetworkStore store = new IndexedNetworkStore();
+      final ExecutorService executor = Executors.newSingleThreadExecutor();
+      final AtomicInteger sizeWhileLoading = new AtomicInteger(-1);
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (request.getPath().endsWith("/tokens")) {
+               return addCommonHeaders(new MockResponse().setBody(access));
+            }
+            if (!request.getPath().contains("marker=")) {
+               return addCommonHeaders(new MockResponse().setResponseCode(200).setBody(page1));
+            }
+            // queried from another thread while the loading thread waits for the second page
+            try {
+               sizeWhileLoading.set(executor.submit(new Callable<Integer>() {
+                  @Override
+                  public Integer call() {
+                     return store.size();
+                  }
+               }).get(5, TimeUnit.SECONDS));
+            } catch (Exception e) {
+               // left at -1 if the query waited for the load
+            }
+            return addCommonHeaders(new MockResponse().setResponseCode(200).setBody(page2));
+         }
+      });
+
+      try {
+         NeutronApi neutronApi = api(url, "openstack-neutron", overrides);
+         store.load(neutronApi.getNetworkApi("RegionOne"));
+
+         /*
+          * Check response
+          */
+         assertEquals(sizeWhileLoading.get(), 2);
+         assertEquals(store.size(), 4);
+      } finally {
+         executor.shutdownNow();
+         server.shutdown();
+      }
+   }
+
+   public void testUpdatesFollowChanges() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged1.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged2.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(201)));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_changes.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         IndexedNetworkStore store = new IndexedNetworkStore().load(neutronApi.getNetworkApi("RegionOne"));
+         NetworkApi networkApi = store.updatedBy(neutronApi.getNetworkApi("RegionOne"));
+
+         assertTrue(networkApi.delete("396f12f8-521e-4b91-8e21-2e003500433a"));
+         assertNull(store.get("396f12f8-521e-4b91-8e21-2e003500433a"));
+         assertEquals(store.find(null, null, NetworkType.LOCAL, null).size(), 0);
+
+         store.putAll(networkApi.list(new PaginationOptions()));
+         assertEquals(store.size(), 4);
+         assertEquals(store.find(null, NetworkStatus.ACTIVE, NetworkType.VLAN, null).size(), 1);
+         assertTrue(store.find(null, NetworkStatus.DOWN, null, null).isEmpty());
+         assertEquals(store.find(null, NetworkStatus.BUILD, NetworkType.LOCAL, null).size(), 1);
+      } finally {
+         server.shutdown();
+      }
+   }
+}
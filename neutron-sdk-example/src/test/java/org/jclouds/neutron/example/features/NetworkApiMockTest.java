@@ -24,12 +24,19 @@ import static org.testng.Assert.assertTrue;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Iterator;
+import java.util.List;
 
 import org.jclouds.neutron.example.NeutronApi;
 import org.jclouds.neutron.example.domain.Network;
 import org.jclouds.neutron.example.domain.NetworkStatus;
 import org.jclouds.neutron.example.domain.NetworkType;
+import org.jclouds.neutron.example.domain.Networks;
+import org.jclouds.neutron.example.functions.NetworkJsonStream;
 import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.neutron.example.options.GetNetworkOptions;
+import org.jclouds.neutron.example.options.ListNetworksOptions;
+import org.jclouds.openstack.v2_0.options.PaginationOptions;
 import org.jclouds.rest.ResourceNotFoundException;
 import org.testng.annotations.Test;
 
@@ -128,6 +135,36 @@ public class NetworkApiMockTest extends BaseNeutronApiMockTest {
       }
    }
 
+   public void testGetNetworkFields() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response_fields.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         Network network = api.get("12345", GetNetworkOptions.Builder.fields("id", "status"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345?fields=id&fields=status");
+
+         /*
+          * Check response
+          */
+         assertNotNull(network);
+         assertEquals(network.getId(), "624312ff-d14b-4ba3-9834-1c78d23d574d");
+         assertEquals(network.getStatus(), NetworkStatus.ACTIVE);
+         assertNull(network.getName());
+      } finally {
+         server.shutdown();
+      }
+   }
+
    public void testGetNetworkFail() throws IOException, InterruptedException, URISyntaxException {
       MockWebServer server = mockOpenStackServer();
       server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
@@ -155,6 +192,163 @@ public class NetworkApiMockTest extends BaseNeutronApiMockTest {
       }
    }
 
+   public void testListNetworksPaged() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged1.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged2.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         // Note: Lazy! The second page is only requested once the first one has been consumed.
+         Iterator<Network> networks = api.list().concat().iterator();
+
+         assertEquals(networks.next().getId(), "396f12f8-521e-4b91-8e21-2e003500433a");
+         assertEquals(networks.next().getId(), "4f7b4c8f-3a1e-4fbd-9a57-0c9b86f2e0f1");
+         assertEquals(server.getRequestCount(), 2);
+
+         assertEquals(networks.next().getId(), "71c1e68c-171a-4aa2-aca5-50ea153a3718");
+         assertEquals(networks.next().getStatus(), NetworkStatus.BUILD);
+         assertFalse(networks.hasNext());
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks?marker=4f7b4c8f-3a1e-4fbd-9a57-0c9b86f2e0f1");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testListSpecificPageNetwork() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged1.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         Networks networks = api.list(PaginationOptions.Builder.limit(2).marker("abcdefg"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks?limit=2&marker=abcdefg");
+
+         /*
+          * Check response
+          */
+         assertNotNull(networks);
+         assertEquals(networks.size(), 2);
+         assertEquals(networks.first().get().getName(), "jclouds-wibble");
+         assertEquals(networks.get(1).getNetworkType(), NetworkType.VLAN);
+         assertTrue(networks.nextMarker().isPresent());
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testListSpecificPageNetworkStream() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged1.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         NetworkJsonStream networks = api.listStream(PaginationOptions.Builder.limit(2).marker("abcdefg"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks?limit=2&marker=abcdefg");
+
+         /*
+          * Check response
+          */
+         assertEquals(networks.next().getName(), "jclouds-wibble");
+         assertEquals(networks.next().getNetworkType(), NetworkType.VLAN);
+         assertFalse(networks.hasNext());
+         assertEquals(networks.getLinks().size(), 1);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testListNetworksFiltered() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_fields.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         Networks networks = api.list(ListNetworksOptions.Builder.status(NetworkStatus.DOWN)
+               .tenantId("1234567890")
+               .networkType(NetworkType.VLAN)
+               .shared(false)
+               .fields("id", "status"));
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks?status=DOWN&tenant_id=1234567890"
+               + "&provider%3Anetwork_type=vlan&shared=false&fields=id&fields=status");
+
+         /*
+          * Check response
+          */
+         assertEquals(networks.size(), 1);
+         assertEquals(networks.get(0).getId(), "4f7b4c8f-3a1e-4fbd-9a57-0c9b86f2e0f1");
+         assertEquals(networks.get(0).getStatus(), NetworkStatus.DOWN);
+         assertNull(networks.get(0).getTenantId());
+         assertFalse(networks.nextMarker().isPresent());
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testListNetworksFail() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         List<Network> networks = api.list().concat().toList();
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks");
+
+         /*
+          * Check response
+          */
+         assertTrue(networks.isEmpty());
+      } finally {
+         server.shutdown();
+      }
+   }
+
    public void testCreateNetworkBulk() throws IOException, InterruptedException, URISyntaxException {
       MockWebServer server = mockOpenStackServer();
       server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
@@ -201,6 +395,37 @@ public class NetworkApiMockTest extends BaseNeutronApiMockTest {
       }
    }
 
+   public void testCreateNetworkBulkStream() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(201).setBody(stringFromResource("/network_bulk_create_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         NetworkJsonStream networks = api.createBulkStream(ImmutableList.of(
+               Network.createBuilder("jclouds-wibble").networkType(NetworkType.LOCAL).build(),
+               Network.createBuilder("jclouds-wibble2").networkType(NetworkType.LOCAL).build()));
+
+         /*
+          * Check request
+          */
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks", "/network_bulk_create_request.json");
+
+         /*
+          * Check response
+          */
+         List<Network> created = ImmutableList.copyOf(networks);
+         assertEquals(created.size(), 2);
+         assertEquals(created.get(0).getId(), "624312ff-d14b-4ba3-9834-1c78d23d574d");
+         assertEquals(created.get(1).getId(), "624312ff-d14b-4ba3-9834-1c78d23d574e");
+      } finally {
+         server.shutdown();
+      }
+   }
+
    @Test(expectedExceptions = ResourceNotFoundException.class)
    public void testCreateNetworkBulkFail() throws IOException, InterruptedException, URISyntaxException {
       MockWebServer server = mockOpenStackServer();
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NetworkStatus;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Tests NetworkSynchronizer full and incremental syncs
+ */
+@Test
+public class NetworkSynchronizerMockTest extends BaseNeutronApiMockTest {
+
+   public void testSyncFetchesOnlyChanges() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged1.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged2.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_changes.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         RecordingListener listener = new RecordingListener();
+         NetworkSynchronizer synchronizer = new NetworkSynchronizer(neutronApi.getNetworkApi("RegionOne"), listener, 10);
+
+         synchronizer.sync();
+         assertEquals(listener.added.size(), 4);
+         assertTrue(listener.updated.isEmpty());
+
+         synchronizer.sync();
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 4);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks?marker=4f7b4c8f-3a1e-4fbd-9a57-0c9b86f2e0f1");
+         RecordedRequest delta = server.takeRequest();
+         assertEquals(delta.getMethod(), "GET");
+         assertTrue(delta.getPath().startsWith("/v2.0/networks?changed_since=2016-06-02T14"), delta.getPath());
+         assertTrue(delta.getPath().endsWith("&sort_key=updated_at&sort_dir=asc"), delta.getPath());
+
+         /*
+          * Check events and index
+          */
+         assertEquals(listener.added.size(), 5);
+         assertEquals(listener.added.get(4).getName(), "jclouds-wibble5");
+         assertEquals(listener.updated.size(), 1);
+         assertEquals(listener.updated.get(0).getStatus(), NetworkStatus.ACTIVE);
+         assertEquals(listener.updated.get(0).getRevisionNumber(), Long.valueOf(3));
+         assertTrue(listener.removed.isEmpty());
+         assertEquals(synchronizer.getNetworks().size(), 5);
+         assertEquals(synchronizer.get("4f7b4c8f-3a1e-4fbd-9a57-0c9b86f2e0f1").getStatus(), NetworkStatus.ACTIVE);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testFullSyncDetectsRemovals() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged1.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged2.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_list_response_paged2.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         RecordingListener listener = new RecordingListener();
+         NetworkSynchronizer synchronizer = new NetworkSynchronizer(neutronApi.getNetworkApi("RegionOne"), listener, 1);
+
+         synchronizer.sync();
+         // Every sync is a full one, and the networks of the first page are gone
+         synchronizer.sync();
+
+         assertEquals(server.getRequestCount(), 4);
+         assertEquals(listener.removed.size(), 2);
+         assertEquals(synchronizer.getNetworks().size(), 2);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   private static class RecordingListener implements NetworkSynchronizer.Listener {
+      private final List<Network> added = Lists.newArrayList();
+      private final List<Network> updated = Lists.newArrayList();
+      private final List<Network> removed = Lists.newArrayList();
+
+      @Override
+      public void networkAdded(Network network) {
+         added.add(network);
+      }
+
+      @Override
+      public void networkUpdated(Network previous, Network current) {
+         updated.add(current);
+      }
+
+      @Override
+      public void networkRemoved(Network network) {
+         removed.add(network);
+      }
+   }
+}
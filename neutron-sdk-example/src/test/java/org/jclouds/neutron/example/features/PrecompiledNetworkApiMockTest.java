@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.features;
+
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.neutron.example.metrics.InMemoryNeutronMetrics;
+import org.jclouds.neutron.example.metrics.InMemoryNeutronMetrics.OperationStats;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests that PrecompiledNetworkApi makes the requests of the NetworkApi proxy
+ */
+@Test
+public class PrecompiledNetworkApiMockTest extends BaseNeutronApiMockTest {
+
+   public void testGetNetwork() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+
+      try {
+         Injector injector = injector(server);
+         PrecompiledNetworkApi api = injector.getInstance(PrecompiledNetworkApi.Factory.class).create("RegionOne");
+
+         Network network = api.get("12345");
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+
+         /*
+          * Check response
+          */
+         assertNotNull(network);
+         assertEquals(network.getName(), "jclouds-wibble");
+         assertEquals(network.getId(), "624312ff-d14b-4ba3-9834-1c78d23d574d");
+
+         // measured as the requests of the proxy are
+         OperationStats get = injector.getInstance(InMemoryNeutronMetrics.class).getStats("network:get", "RegionOne");
+         assertEquals(get.getCount(), 1);
+         assertEquals(get.getStatusCodes().count(200), 1);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testGetNetworkFailsNotFound() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+
+      try {
+         PrecompiledNetworkApi api = injector(server).getInstance(PrecompiledNetworkApi.Factory.class)
+               .create("RegionOne");
+
+         Network network = api.get("12345");
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+
+         /*
+          * Check response
+          */
+         assertNull(network);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   private Injector injector(MockWebServer server) {
+      return ContextBuilder.newBuilder(new NeutronApiMetadata())
+            .endpoint(server.getUrl("/").toString())
+            .credentials("jclouds:joe", "letmein")
+            .overrides(overrides)
+            .modules(ImmutableSet.<Module> of(new ExecutorServiceModule(newDirectExecutorService()),
+                  new SLF4JLoggingModule()))
+            .buildInjector();
+   }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.handlers;
+
+import static org.jclouds.neutron.example.config.NeutronProperties.ERROR_BODY_LIMIT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Properties;
+
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.domain.NeutronError;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Strings;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests the exceptions NeutronErrorHandler sets for failed requests
+ */
+@Test
+public class NeutronErrorHandlerMockTest extends BaseNeutronApiMockTest {
+
+   public void testConflictCarriesNeutronError() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(409).setBody(stringFromResource("/neutron_error_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         try {
+            api.create(Network.createBuilder("jclouds-wibble").build());
+            fail("Expected IllegalStateException");
+         } catch (IllegalStateException e) {
+            NeutronResponseException cause = NeutronResponseException.class.cast(e.getCause());
+            assertEquals(cause.getResponse().getStatusCode(), 409);
+            assertEquals(cause.getError(), new NeutronError("NetworkInUse", "Unable to complete operation on network "
+                  + "624312ff-d14b-4ba3-9834-1c78d23d574d. There are one or more ports still in use on the network.",
+                  ""));
+            assertTrue(cause.getMessage().contains("NetworkInUse"), cause.getMessage());
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testLongErrorBodyIsTruncated() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      String page = "<html><body>" + Strings.repeat("Service Unavailable ", 1000) + "</body></html>";
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(503).setBody(page)));
+      Properties smallLimit = new Properties();
+      smallLimit.putAll(overrides);
+      smallLimit.setProperty(ERROR_BODY_LIMIT, "1024");
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", smallLimit);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         try {
+            api.create(Network.createBuilder("jclouds-wibble").build());
+            fail("Expected NeutronResponseException");
+         } catch (NeutronResponseException e) {
+            assertEquals(e.getResponse().getStatusCode(), 503);
+            assertTrue(e.isTruncated());
+            assertEquals(e.getContent(), page.substring(0, 1024));
+            assertNull(e.getError());
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+      } finally {
+         server.shutdown();
+      }
+   }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.handlers;
+
+import static org.jclouds.Constants.PROPERTY_RETRY_DELAY_START;
+import static org.jclouds.neutron.example.config.NeutronProperties.RETRY_OPERATIONS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+/**
+ * Tests which requests NeutronRetryHandler retries
+ */
+@Test
+public class NeutronRetryHandlerMockTest extends BaseNeutronApiMockTest {
+
+   public NeutronRetryHandlerMockTest() {
+      overrides.setProperty(PROPERTY_RETRY_DELAY_START, "1");
+   }
+
+   public void testGetIsRetried() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(503)));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(409).setHeader("Retry-After", "0")));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         Network network = api.get("12345");
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 4);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+
+         /*
+          * Check response
+          */
+         assertNotNull(network);
+         assertEquals(network.getName(), "jclouds-wibble");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testCreateIsNotRetried() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(503).setBody("unavailable")));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         try {
+            api.create(Network.createBuilder("jclouds-wibble").build());
+            fail("Expected HttpResponseException");
+         } catch (HttpResponseException e) {
+            assertEquals(e.getResponse().getStatusCode(), 503);
+            assertEquals(e.getContent(), "unavailable");
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 2);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testConfiguredOperationIsRetried() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(503)));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(201).setBody(stringFromResource("/network_create_response.json"))));
+      Properties retryCreate = new Properties();
+      retryCreate.putAll(overrides);
+      retryCreate.setProperty(RETRY_OPERATIONS, "network:create");
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", retryCreate);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         Network network = api.create(Network.createBuilder("jclouds-wibble").build());
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 3);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+
+         /*
+          * Check response
+          */
+         assertNotNull(network);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testUnauthorizedIsRetriedWithRenewedToken() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(401)));
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(201).setBody(stringFromResource("/network_create_response.json"))));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         // not idempotent, but a refused request was not processed
+         Network network = api.create(Network.createBuilder("jclouds-wibble").build());
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 4);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "POST", "/v2.0/networks");
+
+         /*
+          * Check response
+          */
+         assertNotNull(network);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testUnauthorizedIsRetriedOnce() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(401)));
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(401)));
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", overrides);
+         NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         try {
+            api.get("12345");
+            fail("Expected AuthorizationException");
+         } catch (AuthorizationException expected) {
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 4);
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+         assertAuthentication(server);
+         assertRequest(server.takeRequest(), "GET", "/v2.0/networks/12345");
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testConcurrentUnauthorizedRenewTheTokenOnce() throws Exception {
+      final int requests = 4;
+      MockWebServer server = mockOpenStackServer();
+      String url = server.getUrl("/").toString();
+      final String access = stringFromResource("/access.json").replace("URL", url.substring(0, url.length() - 1));
+      final String network = stringFromResource("/network_get_response.json");
+      final AtomicInteger authentications = new AtomicInteger();
+      final CountDownLatch refused = new CountDownLatch(requests);
+      server.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (request.getPath().endsWith("/tokens")) {
+               String token = "\"TOKEN-" + authentications.incrementAndGet() + "\"";
+               return addCommonHeaders(new MockResponse().setBody(access.replace("\"TOKEN\"", token)));
+            }
+            if ("TOKEN-1".equals(request.getHeader("X-Auth-Token"))) {
+               // every request is refused with the first token before any of them renews it
+               refused.countDown();
+               refused.await(10, TimeUnit.SECONDS);
+               return addCommonHeaders(new MockResponse().setResponseCode(401));
+            }
+            return addCommonHeaders(new MockResponse().setResponseCode(200).setBody(network));
+         }
+      });
+      ExecutorService executor = Executors.newFixedThreadPool(requests);
+
+      try {
+         NeutronApi neutronApi = api(url, "openstack-neutron", overrides);
+         final NetworkApi api = neutronApi.getNetworkApi("RegionOne");
+
+         List<Future<Network>> networks = Lists.newArrayList();
+         for (int i = 0; i < requests; i++) {
+            networks.add(executor.submit(new Callable<Network>() {
+               @Override
+               public Network call() {
+                  return api.get("12345");
+               }
+            }));
+         }
+         for (Future<Network> network : networks) {
+            assertNotNull(network.get(10, TimeUnit.SECONDS));
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(authentications.get(), 2);
+         assertEquals(server.getRequestCount(), 2 + 2 * requests);
+      } finally {
+         executor.shutdownNow();
+         server.shutdown();
+      }
+   }
+
+   public void testBackoffIsJitteredAndCapped() {
+      NeutronRetryHandler retryHandler = new NeutronRetryHandler(5, 100, 1000, 10, "", null, null);
+      Random random = new Random(0);
+
+      for (int i = 0; i < 100; i++) {
+         assertTrue(retryHandler.backoff(1, random) < 100);
+         assertTrue(retryHandler.backoff(3, random) < 400);
+         assertTrue(retryHandler.backoff(40, random) < 1000);
+      }
+   }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.neutron.example.http.ThrottlingInterceptor.AdaptiveLimit;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the additive-increase, multiplicative-decrease concurrency limit
+ */
+@Test(groups = "unit", testName = "AdaptiveLimitTest")
+public class AdaptiveLimitTest {
+
+   public void testLimitGrowsWhileSaturated() {
+      AdaptiveLimit limit = new AdaptiveLimit(100);
+      assertEquals(limit.getLimit(), 25);
+
+      int inFlight = 0;
+      for (int i = 0; i < 300; i++) {
+         // requests are waiting, so every permit is taken as soon as it is available
+         while (inFlight < limit.getLimit()) {
+            limit.acquire();
+            inFlight++;
+         }
+         limit.release(false);
+         inFlight--;
+      }
+      // about one more permit per limit's worth of completed requests
+      assertEquals(limit.getLimit(), 35);
+   }
+
+   public void testLimitDoesNotGrowWhenUnused() {
+      AdaptiveLimit limit = new AdaptiveLimit(100);
+      for (int i = 0; i < 1000; i++) {
+         limit.acquire();
+         limit.release(false);
+      }
+      assertEquals(limit.getLimit(), 25);
+   }
+
+   public void testLimitShrinksOnCongestion() {
+      AdaptiveLimit limit = new AdaptiveLimit(100);
+      limit.acquire();
+      limit.release(true);
+      assertEquals(limit.getLimit(), 18);
+
+      for (int i = 0; i < 100; i++) {
+         limit.acquire();
+         limit.release(true);
+      }
+      assertEquals(limit.getLimit(), 1);
+   }
+
+   public void testAcquireWaitsForRelease() throws InterruptedException {
+      final AdaptiveLimit limit = new AdaptiveLimit(4);
+      limit.acquire();
+      final CountDownLatch acquired = new CountDownLatch(1);
+      Thread waiting = new Thread(new Runnable() {
+         @Override
+         public void run() {
+            limit.acquire();
+            acquired.countDown();
+         }
+      });
+      waiting.start();
+
+      assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+      limit.release(false);
+      assertTrue(acquired.await(1, TimeUnit.SECONDS));
+      waiting.join();
+   }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.neutron.example.http.CircuitBreaker.State;
+import org.jclouds.neutron.example.metrics.InMemoryNeutronMetrics;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Tests the state changes of CircuitBreaker
+ */
+@Test(groups = "unit", testName = "CircuitBreakerTest")
+public class CircuitBreakerTest {
+
+   private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+   private static final long SLOW = TimeUnit.SECONDS.toNanos(20);
+
+   public void testOpensOnFailureRate() {
+      InMemoryNeutronMetrics metrics = new InMemoryNeutronMetrics();
+      CircuitBreaker breaker = new CircuitBreaker("RegionOne", 10, 50, 10000, 30000, new FakeTicker(), metrics);
+
+      for (int i = 0; i < 9; i++) {
+         assertTrue(breaker.tryAcquire());
+         breaker.onComplete(i % 2 == 0, FAST);
+      }
+      // 5 failures out of 9 requests: the window is not full yet
+      assertEquals(breaker.getState(), State.CLOSED);
+
+      assertTrue(breaker.tryAcquire());
+      breaker.onComplete(false, FAST);
+      assertEquals(breaker.getState(), State.OPEN);
+      assertFalse(breaker.tryAcquire());
+      assertEquals(metrics.getCircuitBreakerStates().get("RegionOne"), State.OPEN);
+   }
+
+   public void testOpensOnSlowCallRate() {
+      CircuitBreaker breaker = new CircuitBreaker("RegionOne", 10, 50, 10000, 30000, new FakeTicker(),
+            new InMemoryNeutronMetrics());
+
+      for (int i = 0; i < 10; i++) {
+         assertTrue(breaker.tryAcquire());
+         breaker.onComplete(false, i < 5 ? SLOW : FAST);
+      }
+      assertEquals(breaker.getState(), State.OPEN);
+   }
+
+   public void testStaysClosedBelowFailureRate() {
+      CircuitBreaker breaker = new CircuitBreaker("RegionOne", 10, 50, 10000, 30000, new FakeTicker(),
+            new InMemoryNeutronMetrics());
+
+      for (int i = 0; i < 100; i++) {
+         assertTrue(breaker.tryAcquire());
+         breaker.onComplete(i % 3 == 0, FAST);
+      }
+      assertEquals(breaker.getState(), State.CLOSED);
+   }
+
+   public void testHalfOpenProbesClose() {
+      FakeTicker ticker = new FakeTicker();
+      InMemoryNeutronMetrics metrics = new InMemoryNeutronMetrics();
+      CircuitBreaker breaker = open(new CircuitBreaker("RegionOne", 10, 50, 10000, 30000, ticker, metrics));
+
+      ticker.advance(29, TimeUnit.SECONDS);
+      assertFalse(breaker.tryAcquire());
+      ticker.advance(1, TimeUnit.SECONDS);
+      for (int i = 0; i < CircuitBreaker.PROBES; i++) {
+         assertTrue(breaker.tryAcquire());
+      }
+      assertEquals(breaker.getState(), State.HALF_OPEN);
+      assertFalse(breaker.tryAcquire());
+
+      for (int i = 0; i < CircuitBreaker.PROBES; i++) {
+         breaker.onComplete(false, FAST);
+      }
+      assertEquals(breaker.getState(), State.CLOSED);
+      assertTrue(breaker.tryAcquire());
+      assertEquals(metrics.getCircuitBreakerStates().get("RegionOne"), State.CLOSED);
+   }
+
+   public void testFailedProbeReopens() {
+      FakeTicker ticker = new FakeTicker();
+      CircuitBreaker breaker = open(new CircuitBreaker("RegionOne", 10, 50, 10000, 30000, ticker,
+            new InMemoryNeutronMetrics()));
+
+      ticker.advance(30, TimeUnit.SECONDS);
+      assertTrue(breaker.tryAcquire());
+      breaker.onComplete(true, FAST);
+      assertEquals(breaker.getState(), State.OPEN);
+      assertFalse(breaker.tryAcquire());
+   }
+
+   private static CircuitBreaker open(CircuitBreaker breaker) {
+      for (int i = 0; i < 10; i++) {
+         breaker.tryAcquire();
+         breaker.onComplete(true, FAST);
+      }
+      assertEquals(breaker.getState(), State.OPEN);
+      return breaker;
+   }
+
+   private static class FakeTicker extends Ticker {
+      private long nanos;
+
+      @Override
+      public long read() {
+         return nanos;
+      }
+
+      private void advance(long time, TimeUnit unit) {
+         nanos += unit.toNanos(time);
+      }
+   }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static org.jclouds.Constants.PROPERTY_RETRY_DELAY_START;
+import static org.jclouds.neutron.example.config.NeutronProperties.CIRCUIT_BREAKER_WINDOW;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Properties;
+
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.testng.annotations.Test;
+
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests that requests to a failing region fail fast
+ */
+@Test
+public class CircuitBreakingInterceptorMockTest extends BaseNeutronApiMockTest {
+
+   public void testFailingRegionFailsFast() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      for (int i = 0; i < 4; i++) {
+         server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(500)));
+      }
+      Properties smallWindow = new Properties();
+      smallWindow.putAll(overrides);
+      smallWindow.setProperty(CIRCUIT_BREAKER_WINDOW, "4");
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", smallWindow);
+
+         // create is not retried, so each call is one failed request
+         for (int i = 0; i < 4; i++) {
+            try {
+               neutronApi.getNetworkApi("RegionOne").create(Network.createBuilder("jclouds-wibble").build());
+               fail("Expected HttpResponseException");
+            } catch (HttpResponseException e) {
+               assertEquals(e.getResponse().getStatusCode(), 500);
+            }
+         }
+         try {
+            neutronApi.getNetworkApi("RegionOne").create(Network.createBuilder("jclouds-wibble").build());
+            fail("Expected CircuitBreakerOpenException");
+         } catch (CircuitBreakerOpenException e) {
+            assertEquals(e.getRegion(), "RegionOne");
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 5);
+      } finally {
+         server.shutdown();
+      }
+   }
+
+   public void testRetriedServerErrorsAreCounted() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      for (int i = 0; i < 2; i++) {
+         server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(500)));
+         server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      }
+      Properties smallWindow = new Properties();
+      smallWindow.putAll(overrides);
+      smallWindow.setProperty(CIRCUIT_BREAKER_WINDOW, "4");
+      smallWindow.setProperty(PROPERTY_RETRY_DELAY_START, "1");
+
+      try {
+         NeutronApi neutronApi = api(server.getUrl("/").toString(), "openstack-neutron", smallWindow);
+
+         // each get succeeds on its retry, but half of the attempts failed
+         for (int i = 0; i < 2; i++) {
+            assertNotNull(neutronApi.getNetworkApi("RegionOne").get("624312ff-d14b-4ba3-9834-1c78d23d574d"));
+         }
+         try {
+            neutronApi.getNetworkApi("RegionOne").get("624312ff-d14b-4ba3-9834-1c78d23d574d");
+            fail("Expected CircuitBreakerOpenException");
+         } catch (CircuitBreakerOpenException e) {
+            assertEquals(e.getRegion(), "RegionOne");
+         }
+
+         /*
+          * Check request
+          */
+         assertEquals(server.getRequestCount(), 5);
+      } finally {
+         server.shutdown();
+      }
+   }
+}
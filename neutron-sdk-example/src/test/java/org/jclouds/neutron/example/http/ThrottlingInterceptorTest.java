@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.http;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.squareup.okhttp.Connection;
+import com.squareup.okhttp.Interceptor.Chain;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+/**
+ * Tests that the throttle sees every attempt of a request
+ */
+@Test(groups = "unit", testName = "ThrottlingInterceptorTest")
+public class ThrottlingInterceptorTest {
+
+   @AfterMethod
+   public void clearRegion() {
+      CurrentRegionHttpCommandExecutorService.setCurrentRegion(null);
+   }
+
+   public void testThrottledAttemptShrinksTheLimit() throws IOException {
+      ThrottlingInterceptor throttle = new ThrottlingInterceptor(0, 16, 5000);
+      CurrentRegionHttpCommandExecutorService.setCurrentRegion("RegionOne");
+
+      // a 503 that the retry handler would retry to success still signals congestion
+      assertEquals(throttle.intercept(new RespondingChain(503)).code(), 503);
+      assertEquals(throttle.getConcurrencyLimit("RegionOne"), 3);
+      assertEquals(throttle.intercept(new RespondingChain(200)).code(), 200);
+      assertEquals(throttle.getConcurrencyLimit("RegionOne"), 3);
+   }
+
+   @Test(timeOut = 10000)
+   public void testFailedAttemptReleasesItsPermit() throws IOException {
+      ThrottlingInterceptor throttle = new ThrottlingInterceptor(0, 4, 5000);
+      CurrentRegionHttpCommandExecutorService.setCurrentRegion("RegionOne");
+      assertEquals(throttle.getConcurrencyLimit("RegionOne"), 1);
+
+      try {
+         throttle.intercept(new RespondingChain(0));
+         fail("Expected IOException");
+      } catch (IOException e) {
+         // the next attempt only proceeds if the permit of this one was released
+      }
+      assertEquals(throttle.intercept(new RespondingChain(200)).code(), 200);
+   }
+
+   public void testRequestsWithoutRegionAreNotLimited() throws IOException {
+      ThrottlingInterceptor throttle = new ThrottlingInterceptor(0, 16, 5000);
+
+      assertEquals(throttle.intercept(new RespondingChain(503)).code(), 503);
+      assertEquals(throttle.getConcurrencyLimit("RegionOne"), 4);
+   }
+
+   /**
+    * Answers with the status code, or fails to connect if it is 0.
+    */
+   private static final class RespondingChain implements Chain {
+      private final int statusCode;
+      private final Request request = new Request.Builder().url("http://localhost/v2.0/networks").build();
+
+      private RespondingChain(int statusCode) {
+         this.statusCode = statusCode;
+      }
+
+      @Override
+      public Request request() {
+         return request;
+      }
+
+      @Override
+      public Response proceed(Request request) throws IOException {
+         if (statusCode == 0) {
+            throw new IOException("Connection refused");
+         }
+         return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(statusCode).build();
+      }
+
+      @Override
+      public Connection connection() {
+         return null;
+      }
+   }
+}
@@ -16,6 +16,8 @@
  */
 package org.jclouds.neutron.example.internal;
 
+import static org.jclouds.neutron.example.config.NeutronProperties.SHARED_TOKEN_CACHE;
+import static org.jclouds.neutron.example.config.NeutronProperties.WARM_EXTENSIONS;
 import static org.jclouds.openstack.keystone.v2_0.config.KeystoneProperties.CREDENTIAL_TYPE;
 
 import java.util.Properties;
@@ -36,5 +38,9 @@ public class BaseNeutronApiMockTest extends BaseOpenStackMockTest<NeutronApi> {
    public BaseNeutronApiMockTest() {
       overrides = new Properties();
       overrides.setProperty(CREDENTIAL_TYPE, CredentialTypes.PASSWORD_CREDENTIALS);
+      // keeps the requests of each test in the order they are enqueued
+      overrides.setProperty(WARM_EXTENSIONS, "false");
+      // each test authenticates, even if a previous test ran against the same port
+      overrides.setProperty(SHARED_TOKEN_CACHE, "false");
    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.neutron.example.metrics;
+
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.jclouds.neutron.example.NeutronApi;
+import org.jclouds.neutron.example.NeutronApiMetadata;
+import org.jclouds.neutron.example.domain.Network;
+import org.jclouds.neutron.example.features.NetworkApi;
+import org.jclouds.neutron.example.internal.BaseNeutronApiMockTest;
+import org.jclouds.neutron.example.metrics.InMemoryNeutronMetrics.OperationStats;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+/**
+ * Tests the metrics recorded for each operation
+ */
+@Test
+public class InMemoryNeutronMetricsMockTest extends BaseNeutronApiMockTest {
+
+   public void testOperationsAreMeasured() throws IOException, InterruptedException, URISyntaxException {
+      MockWebServer server = mockOpenStackServer();
+      server.enqueue(addCommonHeaders(new MockResponse().setBody(stringFromResource("/access.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_get_response.json"))));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(404)));
+      server.enqueue(addCommonHeaders(new MockResponse().setResponseCode(200).setBody(stringFromResource("/network_create_response.json"))));
+
+      try {
+         Injector injector = ContextBuilder.newBuilder(new NeutronApiMetadata())
+               .endpoint(server.getUrl("/").toString())
+               .credentials("jclouds:joe", "letmein")
+               .overrides(overrides)
+               .modules(ImmutableSet.<Module> of(new ExecutorServiceModule(newDirectExecutorService()),
+                     new SLF4JLoggingModule()))
+               .buildInjector();
+         NetworkApi api = injector.getInstance(NeutronApi.class).getNetworkApi("RegionOne");
+         InMemoryNeutronMetrics metrics = injector.getInstance(InMemoryNeutronMetrics.class);
+
+         api.get("12345");
+         assertNull(api.get("12345"));
+         api.create(Network.createBuilder("jclouds-wibble").build());
+
+         /*
+          * Check metrics
+          */
+         assertEquals(server.getRequestCount(), 4);
+         assertEquals(metrics.getStats().size(), 3);
+
+         OperationStats get = metrics.getStats("network:get", "RegionOne");
+         assertEquals(get.getCount(), 2);
+         assertEquals(get.getStatusCodes().count(200), 1);
+         assertEquals(get.getStatusCodes().count(404), 1);
+         assertEquals(get.getErrors().count("ResourceNotFoundException"), 1);
+         assertTrue(get.getResponseBytes() > 0);
+         assertTrue(get.getLatencyPercentile(99) >= get.getLatencyPercentile(50));
+         assertTrue(get.getLatencyPercentile(50) > 0);
+
+         OperationStats create = metrics.getStats("network:create", "RegionOne");
+         assertEquals(create.getCount(), 1);
+         assertTrue(create.getRequestBytes() > 0);
+         assertTrue(create.getErrors().isEmpty());
+
+         assertNull(metrics.getStats("network:get", "RegionTwo"));
+      } finally {
+         server.shutdown();
+      }
+   }
+}